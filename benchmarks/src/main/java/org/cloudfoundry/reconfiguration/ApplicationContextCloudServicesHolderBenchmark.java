@@ -0,0 +1,100 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+public class ApplicationContextCloudServicesHolderBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    @Param({"1", "10", "100", "300"})
+    public int classpathEntries;
+
+    private StaticApplicationContext applicationContext;
+
+    private Path root;
+
+    private URL[] urls;
+
+    @Setup(Level.Trial)
+    public void classpath() throws IOException {
+        this.root = Files.createTempDirectory("auto-reconfiguration-benchmark");
+        this.urls = new URL[this.classpathEntries];
+
+        for (int i = 0; i < this.classpathEntries; i++) {
+            Path entry = this.root.resolve(String.format("entry-%d", i));
+            Path cloudServices = entry.resolve("META-INF/cloud/cloud-services");
+
+            Files.createDirectories(cloudServices.getParent());
+            Files.write(cloudServices, Arrays.asList("org.springframework.cloud.Cloud", String.format("org.example.Absent%d", i)), StandardCharsets.UTF_8);
+
+            this.urls[i] = entry.toUri().toURL();
+        }
+
+        this.applicationContext = applicationContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteClasspath() throws IOException {
+        FileSystemUtils.deleteRecursively(this.root);
+    }
+
+    @Benchmark
+    public List<Class<?>> getCloudServiceClasses() {
+        StaticApplicationContext applicationContext = this.cached ? this.applicationContext : applicationContext();
+        return ApplicationContextCloudServicesHolder.getCloudServiceClasses(applicationContext);
+    }
+
+    private StaticApplicationContext applicationContext() {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.setClassLoader(new URLClassLoader(this.urls, getClass().getClassLoader()));
+        return applicationContext;
+    }
+
+}
@@ -19,29 +19,61 @@ package org.cloudfoundry.reconfiguration;
 import org.springframework.cloud.Cloud;
 
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 abstract class AbstractCloudHolder implements CloudHolder {
 
-    private final Cloud cloud;
+    private final Object monitor = new Object();
 
-    private final boolean isInCloud;
+    private final Supplier<Cloud> cloudSupplier;
+
+    private volatile boolean initialized;
+
+    private Cloud cloud;
+
+    private ServiceInfoIndex serviceInfoIndex;
 
     AbstractCloudHolder(Cloud cloud) {
         this(cloud, cloud != null);
     }
 
     AbstractCloudHolder(Cloud cloud, boolean isInCloud) {
-        this.cloud = cloud;
-        this.isInCloud = isInCloud;
+        this(() -> isInCloud ? cloud : null);
+    }
+
+    AbstractCloudHolder(Supplier<Cloud> cloudSupplier) {
+        this.cloudSupplier = cloudSupplier;
+    }
+
+    @Override
+    public final ServiceInfoIndex getServiceInfoIndex() {
+        initialize();
+        return this.serviceInfoIndex;
     }
 
     @Override
     public final void withCloud(Runnable ifNotInCloud, Consumer<Cloud> ifInCloud) {
-        if (this.isInCloud) {
+        initialize();
+
+        if (this.cloud != null) {
             ifInCloud.accept(this.cloud);
         } else {
             ifNotInCloud.run();
         }
     }
 
+    private void initialize() {
+        if (this.initialized) {
+            return;
+        }
+
+        synchronized (this.monitor) {
+            if (!this.initialized) {
+                this.cloud = this.cloudSupplier.get();
+                this.serviceInfoIndex = this.cloud == null ? null : new ServiceInfoIndex(this.cloud);
+                this.initialized = true;
+            }
+        }
+    }
+
 }
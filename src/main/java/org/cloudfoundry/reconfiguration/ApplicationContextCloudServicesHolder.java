@@ -24,6 +24,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -32,12 +35,19 @@ import static org.cloudfoundry.reconfiguration.BeanUtils.hasBeansOfType;
 
 final class ApplicationContextCloudServicesHolder implements CloudServicesHolder {
 
+    private static final String CLOUD_SERVICES = "classpath*:/META-INF/cloud/cloud-services";
+
+    private static final String CLOUD_SERVICES_INDEX = "classpath:/META-INF/auto-reconfiguration/cloud-services.index";
+
+    private static final ClassLoaderCache<List<String>> CLOUD_SERVICE_CLASS_NAMES = new ClassLoaderCache<>();
+
     private static final Logger LOGGER = Logger.getLogger(ApplicationContextCloudServicesHolder.class.getName());
 
     private final boolean isUsingCloudServices;
 
-    ApplicationContextCloudServicesHolder(ApplicationContext applicationContext) {
-        this.isUsingCloudServices = isUsingCloudServices(applicationContext);
+    ApplicationContextCloudServicesHolder(Collection<Class<?>> cloudServiceClasses, BeanTypeIndex beanTypeIndex) {
+        this.isUsingCloudServices = cloudServiceClasses.stream()
+            .anyMatch(klass -> hasBeansOfType(beanTypeIndex, klass));
     }
 
     @Override
@@ -49,6 +59,41 @@ final class ApplicationContextCloudServicesHolder implements CloudServicesHolder
         }
     }
 
+    static List<Class<?>> getCloudServiceClasses(ApplicationContext applicationContext) {
+        ReconfigurationEvent event = ReconfigurationEvents.beginCloudServicesScan();
+        ClassLoader classLoader = applicationContext.getClassLoader();
+
+        List<Class<?>> cloudServiceClasses = CLOUD_SERVICE_CLASS_NAMES.get(classLoader, key -> getCloudServiceClassNames(applicationContext, key)).stream()
+            .map(className -> ClassUtils.resolveClassName(className, classLoader))
+            .collect(Collectors.toList());
+
+        event.commit(null, null, String.format("found %d cloud service classes", cloudServiceClasses.size()));
+        return cloudServiceClasses;
+    }
+
+    private static List<String> getCloudServiceClassNames(ApplicationContext applicationContext, ClassLoader classLoader) {
+        return Collections.unmodifiableList(getCloudServiceResources(applicationContext)
+            .flatMap(ApplicationContextCloudServicesHolder::getCloudServiceClasses)
+            .distinct()
+            .filter(className -> ClassUtils.isPresent(className, classLoader))
+            .collect(Collectors.toList()));
+    }
+
+    private static Stream<Resource> getCloudServiceResources(ApplicationContext applicationContext) {
+        Resource index = applicationContext.getResource(CLOUD_SERVICES_INDEX);
+
+        if (index.exists()) {
+            return Stream.of(index);
+        }
+
+        try {
+            return Arrays.stream(applicationContext.getResources(CLOUD_SERVICES));
+        } catch (IOException e) {
+            LOGGER.warning("Unable to read cloud service classes");
+            return Stream.empty();
+        }
+    }
+
     private static Stream<String> getCloudServiceClasses(Resource resource) {
         try (BufferedReader in = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
             return in.lines()
@@ -61,20 +106,4 @@ final class ApplicationContextCloudServicesHolder implements CloudServicesHolder
         }
     }
 
-    private static boolean isClassPresent(String className) {
-        return ClassUtils.isPresent(className, null);
-    }
-
-    private static boolean isUsingCloudServices(ApplicationContext applicationContext) {
-        try {
-            return Arrays.stream(applicationContext.getResources("classpath*:/META-INF/cloud/cloud-services"))
-                .flatMap(ApplicationContextCloudServicesHolder::getCloudServiceClasses)
-                .filter(ApplicationContextCloudServicesHolder::isClassPresent)
-                .anyMatch(klass -> hasBeansOfType(applicationContext, klass));
-        } catch (IOException e) {
-            LOGGER.warning("Unable to read cloud service classes");
-            return false;
-        }
-    }
-
 }
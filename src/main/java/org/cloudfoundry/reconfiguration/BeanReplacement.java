@@ -0,0 +1,81 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.service.ServiceInfo;
+
+import java.util.Collections;
+import java.util.List;
+
+final class BeanReplacement {
+
+    private final String beanName;
+
+    private final String cloudServiceBeanName;
+
+    private final List<ServiceInfo> replicaServiceInfos;
+
+    private final ServiceInfo serviceInfo;
+
+    private final Class<?> type;
+
+    BeanReplacement(Class<?> type, String beanName, ServiceInfo serviceInfo) {
+        this(type, beanName, serviceInfo, Collections.emptyList());
+    }
+
+    BeanReplacement(Class<?> type, String beanName, ServiceInfo serviceInfo, List<ServiceInfo> replicaServiceInfos) {
+        this(type, beanName, serviceInfo.getId(), serviceInfo, replicaServiceInfos);
+    }
+
+    BeanReplacement(Class<?> type, String beanName, String cloudServiceBeanName, ServiceInfo serviceInfo, List<ServiceInfo> replicaServiceInfos) {
+        this.type = type;
+        this.beanName = beanName;
+        this.cloudServiceBeanName = cloudServiceBeanName;
+        this.serviceInfo = serviceInfo;
+        this.replicaServiceInfos = replicaServiceInfos;
+    }
+
+    String getBeanName() {
+        return this.beanName;
+    }
+
+    String getCloudServiceBeanName() {
+        return this.cloudServiceBeanName;
+    }
+
+    List<ServiceInfo> getReplicaServiceInfos() {
+        return this.replicaServiceInfos;
+    }
+
+    String getServiceId() {
+        return this.serviceInfo.getId();
+    }
+
+    ServiceInfo getServiceInfo() {
+        return this.serviceInfo;
+    }
+
+    Class<?> getType() {
+        return this.type;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s '%s' -> '%s'", this.type.getName(), this.beanName, getCloudServiceBeanName());
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class BeanTypeIndex {
+
+    private final Map<Class<?>, List<String>> beanNames = new LinkedHashMap<>();
+
+    BeanTypeIndex(Collection<Class<?>> types) {
+        types.forEach(type -> this.beanNames.put(type, new ArrayList<>()));
+    }
+
+    void add(String beanName, Class<?> type) {
+        List<String> names = this.beanNames.get(type);
+
+        if (names != null && !names.contains(beanName)) {
+            names.add(beanName);
+        }
+    }
+
+    List<String> getBeanNames(Class<?> type) {
+        List<String> names = this.beanNames.get(type);
+        return names == null ? Collections.emptyList() : Collections.unmodifiableList(names);
+    }
+
+    void replace(String beanName, String singletonName, Object singleton) {
+        this.beanNames.forEach((type, names) -> {
+            names.remove(beanName);
+
+            if (type.isInstance(singleton)) {
+                add(singletonName, type);
+            }
+        });
+    }
+
+}
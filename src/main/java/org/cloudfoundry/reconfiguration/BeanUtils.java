@@ -16,32 +16,120 @@
 
 package org.cloudfoundry.reconfiguration;
 
-import org.springframework.beans.factory.ListableBeanFactory;
-import org.springframework.util.ClassUtils;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.CannotLoadBeanClassException;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.Collection;
+import java.util.logging.Logger;
 
 final class BeanUtils {
 
+    private static final Logger LOGGER = Logger.getLogger(BeanUtils.class.getName());
+
     private BeanUtils() {
     }
 
-    static int getCountOfBeansForType(ListableBeanFactory beanFactory, Class<?> klass) {
-        return getBeanNamesForType(beanFactory, klass).length;
+    static int getCountOfBeansForType(BeanTypeIndex beanTypeIndex, Class<?> klass) {
+        return beanTypeIndex.getBeanNames(klass).size();
     }
 
-    static String getSingleBeanName(ListableBeanFactory beanFactory, Class<?> klass) {
-        return getBeanNamesForType(beanFactory, klass)[0];
+    static String getSingleBeanName(BeanTypeIndex beanTypeIndex, Class<?> klass) {
+        return beanTypeIndex.getBeanNames(klass).get(0);
     }
 
-    static boolean hasBeansOfType(ListableBeanFactory beanFactory, Class<?> klass) {
-        return getCountOfBeansForType(beanFactory, klass) != 0;
+    static boolean hasBeansOfType(BeanTypeIndex beanTypeIndex, Class<?> klass) {
+        return getCountOfBeansForType(beanTypeIndex, klass) != 0;
     }
 
-    static boolean hasBeansOfType(ListableBeanFactory beanFactory, String className) {
-        return hasBeansOfType(beanFactory, ClassUtils.resolveClassName(className, null));
+    static BeanTypeIndex indexBeansOfTypes(ConfigurableListableBeanFactory beanFactory, Collection<Class<?>> klasses) {
+        BeanTypeIndex beanTypeIndex = new BeanTypeIndex(klasses);
+
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            try {
+                BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(beanName);
+
+                if (beanDefinition.isAbstract() || !isTypeDeterminableWithoutEagerInit(beanFactory, beanDefinition)) {
+                    continue;
+                }
+
+                for (Class<?> klass : klasses) {
+                    String candidate = getCandidate(beanFactory, beanName, beanDefinition, klass);
+
+                    if (candidate != null) {
+                        beanTypeIndex.add(candidate, klass);
+                    }
+                }
+            } catch (CannotLoadBeanClassException | BeanDefinitionStoreException | NoSuchBeanDefinitionException e) {
+                LOGGER.fine(String.format("Ignoring '%s' bean because its definition could not be resolved", beanName));
+            }
+        }
+
+        for (String singletonName : beanFactory.getSingletonNames()) {
+            if (beanFactory.containsBeanDefinition(singletonName)) {
+                continue;
+            }
+
+            for (Class<?> klass : klasses) {
+                String candidate = getSingletonCandidate(beanFactory, singletonName, klass);
+
+                if (candidate != null) {
+                    beanTypeIndex.add(candidate, klass);
+                }
+            }
+        }
+
+        return beanTypeIndex;
     }
 
-    private static String[] getBeanNamesForType(ListableBeanFactory beanFactory, Class<?> klass) {
-        return beanFactory.getBeanNamesForType(klass, false, false);
+    private static String getCandidate(ConfigurableListableBeanFactory beanFactory, String beanName, BeanDefinition beanDefinition, Class<?> klass) {
+        boolean factoryBean = beanFactory.isFactoryBean(beanName);
+        boolean decorated = beanDefinition instanceof RootBeanDefinition && ((RootBeanDefinition) beanDefinition).getDecoratedDefinition() != null;
+
+        if ((!factoryBean || (decorated && !beanDefinition.isLazyInit()) || beanFactory.containsSingleton(beanName)) &&
+            (decorated ? beanDefinition.isSingleton() : beanFactory.isSingleton(beanName)) &&
+            beanFactory.isTypeMatch(beanName, klass)) {
+            return beanName;
+        }
+
+        String factoryBeanName = BeanFactory.FACTORY_BEAN_PREFIX + beanName;
+        return factoryBean && beanDefinition.isSingleton() && beanFactory.isTypeMatch(factoryBeanName, klass) ? factoryBeanName : null;
+    }
+
+    private static String getSingletonCandidate(ConfigurableListableBeanFactory beanFactory, String singletonName, Class<?> klass) {
+        try {
+            String candidate = singletonName;
+
+            if (beanFactory.isFactoryBean(singletonName)) {
+                if (beanFactory.isSingleton(singletonName) && beanFactory.isTypeMatch(singletonName, klass)) {
+                    return singletonName;
+                }
+
+                candidate = BeanFactory.FACTORY_BEAN_PREFIX + singletonName;
+            }
+
+            return beanFactory.isTypeMatch(candidate, klass) ? candidate : null;
+        } catch (NoSuchBeanDefinitionException e) {
+            return null;
+        }
+    }
+
+    private static boolean isTypeDeterminableWithoutEagerInit(ConfigurableListableBeanFactory beanFactory, BeanDefinition beanDefinition) {
+        boolean hasBeanClass = beanDefinition instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) beanDefinition).hasBeanClass();
+        boolean allowEagerClassLoading = beanFactory instanceof DefaultListableBeanFactory && ((DefaultListableBeanFactory) beanFactory).isAllowEagerClassLoading();
+
+        if (!hasBeanClass && beanDefinition.isLazyInit() && !allowEagerClassLoading) {
+            return false;
+        }
+
+        String factoryBeanName = beanDefinition.getFactoryBeanName();
+        return factoryBeanName == null || !beanFactory.isFactoryBean(factoryBeanName) || beanFactory.containsSingleton(factoryBeanName);
     }
 
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+final class ClassLoaderCache<V> {
+
+    private final Map<ClassLoader, V> cache = new WeakHashMap<>();
+
+    V get(ClassLoader classLoader, Function<ClassLoader, V> loader) {
+        if (classLoader == null) {
+            return loader.apply(null);
+        }
+
+        synchronized (this.cache) {
+            return this.cache.computeIfAbsent(classLoader, loader);
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.util.ClassUtils;
+
+final class ClassPathUtils {
+
+    private static final boolean IN_NATIVE_IMAGE = System.getProperty("org.graalvm.nativeimage.imagecode") != null;
+
+    private ClassPathUtils() {
+    }
+
+    static boolean isPresent(String className, ClassLoader classLoader) {
+        if (IN_NATIVE_IMAGE) {
+            return ClassUtils.isPresent(className, classLoader);
+        }
+
+        String resourceName = ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+        ClassLoader candidate = classLoader == null ? ClassUtils.getDefaultClassLoader() : classLoader;
+
+        return (candidate == null ? ClassLoader.getSystemResource(resourceName) : candidate.getResource(resourceName)) != null;
+    }
+
+}
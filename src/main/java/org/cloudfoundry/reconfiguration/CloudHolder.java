@@ -22,6 +22,8 @@ import java.util.function.Consumer;
 
 interface CloudHolder {
 
+    ServiceInfoIndex getServiceInfoIndex();
+
     void withCloud(Runnable ifNotInCloud, Consumer<Cloud> ifInCloud);
 
 }
@@ -26,12 +26,19 @@ public final class CloudProfileApplicationContextInitializer implements Applicat
 
     private final CloudHolder cloudHolder;
 
+    private final ReconfigurationTimings timings;
+
     public CloudProfileApplicationContextInitializer() {
         this(SharedCloudHolder.getInstance());
     }
 
     CloudProfileApplicationContextInitializer(CloudHolder cloudHolder) {
+        this(cloudHolder, ReconfigurationTimings.getInstance());
+    }
+
+    CloudProfileApplicationContextInitializer(CloudHolder cloudHolder, ReconfigurationTimings timings) {
         this.cloudHolder = cloudHolder;
+        this.timings = timings;
     }
 
     @Override
@@ -41,7 +48,7 @@ public final class CloudProfileApplicationContextInitializer implements Applicat
 
     @Override
     public void initialize(ConfigurableApplicationContext applicationContext) {
-        activateProfile("cloud", applicationContext.getEnvironment(), this.cloudHolder);
+        this.timings.time("profile-activation", null, () -> activateProfile("cloud", applicationContext.getEnvironment(), this.cloudHolder));
     }
 
 }
@@ -26,12 +26,19 @@ public final class CloudProfileApplicationListener implements ApplicationListene
 
     private final CloudHolder cloudHolder;
 
+    private final ReconfigurationTimings timings;
+
     public CloudProfileApplicationListener() {
         this(SharedCloudHolder.getInstance());
     }
 
     CloudProfileApplicationListener(CloudHolder cloudHolder) {
+        this(cloudHolder, ReconfigurationTimings.getInstance());
+    }
+
+    CloudProfileApplicationListener(CloudHolder cloudHolder, ReconfigurationTimings timings) {
         this.cloudHolder = cloudHolder;
+        this.timings = timings;
     }
 
     @Override
@@ -41,7 +48,7 @@ public final class CloudProfileApplicationListener implements ApplicationListene
 
     @Override
     public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
-        activateProfile("cloud", event.getEnvironment(), this.cloudHolder);
+        this.timings.time("profile-activation", null, () -> activateProfile("cloud", event.getEnvironment(), this.cloudHolder));
     }
 
 }
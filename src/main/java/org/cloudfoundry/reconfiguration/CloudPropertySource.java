@@ -0,0 +1,87 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.Cloud;
+import org.springframework.core.env.EnumerablePropertySource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+final class CloudPropertySource extends EnumerablePropertySource<Cloud> {
+
+    private static final String PREFIX = "cloud.";
+
+    private final Object monitor = new Object();
+
+    private volatile CloudProperties cloudProperties;
+
+    CloudPropertySource(String name, Cloud cloud) {
+        super(name, cloud);
+    }
+
+    @Override
+    public boolean containsProperty(String name) {
+        return name.startsWith(PREFIX) && getCloudProperties().properties.containsKey(name);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return name.startsWith(PREFIX) ? getCloudProperties().properties.get(name) : null;
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return getCloudProperties().names;
+    }
+
+    private CloudProperties getCloudProperties() {
+        CloudProperties cloudProperties = this.cloudProperties;
+
+        if (cloudProperties == null) {
+            synchronized (this.monitor) {
+                cloudProperties = this.cloudProperties;
+
+                if (cloudProperties == null) {
+                    cloudProperties = new CloudProperties(getSource().getCloudProperties());
+                    this.cloudProperties = cloudProperties;
+                }
+            }
+        }
+
+        return cloudProperties;
+    }
+
+    private static final class CloudProperties {
+
+        private final String[] names;
+
+        private final Map<String, Object> properties;
+
+        private CloudProperties(Properties source) {
+            Map<String, Object> properties = new HashMap<>(source.size() * 2);
+            source.forEach((key, value) -> properties.put(key.toString(), value));
+
+            this.names = properties.keySet().toArray(new String[0]);
+            this.properties = Collections.unmodifiableMap(properties);
+        }
+
+    }
+
+}
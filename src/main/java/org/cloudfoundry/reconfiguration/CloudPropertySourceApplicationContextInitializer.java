@@ -19,7 +19,6 @@ package org.cloudfoundry.reconfiguration;
 import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.Ordered;
-import org.springframework.core.env.PropertiesPropertySource;
 
 import java.util.logging.Logger;
 
@@ -29,12 +28,19 @@ public final class CloudPropertySourceApplicationContextInitializer implements A
 
     private final CloudHolder cloudHolder;
 
+    private final ReconfigurationTimings timings;
+
     public CloudPropertySourceApplicationContextInitializer() {
         this(SharedCloudHolder.getInstance());
     }
 
     CloudPropertySourceApplicationContextInitializer(CloudHolder cloudHolder) {
+        this(cloudHolder, ReconfigurationTimings.getInstance());
+    }
+
+    CloudPropertySourceApplicationContextInitializer(CloudHolder cloudHolder, ReconfigurationTimings timings) {
         this.cloudHolder = cloudHolder;
+        this.timings = timings;
     }
 
     @Override
@@ -46,10 +52,10 @@ public final class CloudPropertySourceApplicationContextInitializer implements A
     public void initialize(ConfigurableApplicationContext applicationContext) {
         this.cloudHolder.withCloud(
             () -> this.logger.warning(String.format("Skipping '%s' property source addition because not in a cloud", "cloud")),
-            cloud -> {
-                applicationContext.getEnvironment().getPropertySources().addLast(new PropertiesPropertySource("cloud", cloud.getCloudProperties()));
+            cloud -> this.timings.time("property-source-creation", null, () -> {
+                applicationContext.getEnvironment().getPropertySources().addLast(new CloudPropertySource("cloud", cloud));
                 this.logger.info("'cloud' property source added");
-            });
+            }));
     }
 
 }
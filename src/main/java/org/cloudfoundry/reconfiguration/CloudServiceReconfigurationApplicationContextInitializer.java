@@ -46,7 +46,8 @@ public final class CloudServiceReconfigurationApplicationContextInitializer impl
         this.cloudHolder.withCloud(
             () -> this.logger.warning("Skipping reconfiguration because not in a cloud"),
             cloud -> {
-                applicationContext.addBeanFactoryPostProcessor(new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud));
+                applicationContext.addBeanFactoryPostProcessor(new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud,
+                    this.cloudHolder.getServiceInfoIndex()));
                 this.logger.info("Reconfiguration enabled");
             });
     }
@@ -22,23 +22,47 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.cloud.Cloud;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.Ordered;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
-import static org.cloudfoundry.reconfiguration.CloudServiceUtils.replaceBeanOfType;
+import static org.cloudfoundry.reconfiguration.ApplicationContextCloudServicesHolder.getCloudServiceClasses;
+import static org.cloudfoundry.reconfiguration.BeanUtils.indexBeansOfTypes;
+import static org.cloudfoundry.reconfiguration.CloudServiceUtils.replaceBeansOfTypes;
+import static org.cloudfoundry.reconfiguration.ReconfigurationTargets.getTargetClasses;
 
 final class CloudServiceReconfigurationBeanFactoryPostProcessor implements BeanFactoryPostProcessor, Ordered {
 
+    private static final String METER_REGISTRY_CLASS_NAME = "io.micrometer.core.instrument.MeterRegistry";
+
     private final Logger logger = Logger.getLogger(this.getClass().getName());
 
     private final ApplicationContext applicationContext;
 
     private final Cloud cloud;
 
+    private final ServiceInfoIndex serviceInfoIndex;
+
+    private final ReconfigurationTimings timings;
+
     CloudServiceReconfigurationBeanFactoryPostProcessor(ApplicationContext applicationContext, Cloud cloud) {
+        this(applicationContext, cloud, new ServiceInfoIndex(cloud));
+    }
+
+    CloudServiceReconfigurationBeanFactoryPostProcessor(ApplicationContext applicationContext, Cloud cloud, ServiceInfoIndex serviceInfoIndex) {
+        this(applicationContext, cloud, serviceInfoIndex, ReconfigurationTimings.getInstance());
+    }
+
+    CloudServiceReconfigurationBeanFactoryPostProcessor(ApplicationContext applicationContext, Cloud cloud, ServiceInfoIndex serviceInfoIndex,
+                                                        ReconfigurationTimings timings) {
         this.applicationContext = applicationContext;
         this.cloud = cloud;
+        this.serviceInfoIndex = serviceInfoIndex;
+        this.timings = timings;
     }
 
     @Override
@@ -48,18 +72,61 @@ final class CloudServiceReconfigurationBeanFactoryPostProcessor implements BeanF
 
     @Override
     public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
-        new ApplicationContextCloudServicesHolder(this.applicationContext)
+        ReconfigurationProperties properties = new ReconfigurationProperties(this.applicationContext.getEnvironment());
+        ReconfigurationTimings timings = reconfigure(beanFactory, properties);
+
+        if (properties.isReportTimings()) {
+            this.logger.info(timings.toJson());
+        }
+    }
+
+    ReconfigurationTimings reconfigure(ConfigurableListableBeanFactory beanFactory, ReconfigurationProperties properties) {
+        ReconfigurationTimings timings = this.timings.drain();
+
+        List<Class<?>> cloudServiceClasses = timings.time("cloud-services-scan", null, () -> getCloudServiceClasses(this.applicationContext));
+        List<Class<?>> reconfigurationClasses = getTargetClasses(this.applicationContext.getClassLoader());
+
+        List<Class<?>> indexedClasses = new ArrayList<>(cloudServiceClasses);
+        indexedClasses.addAll(reconfigurationClasses);
+        BeanTypeIndex beanTypeIndex = timings.time("bean-index", null, () -> indexBeansOfTypes(beanFactory, indexedClasses));
+
+        List<BeanReplacement> replacements = new ArrayList<>();
+
+        new ApplicationContextCloudServicesHolder(cloudServiceClasses, beanTypeIndex)
             .withCloudServices(
                 () -> this.logger.info("Skipping reconfiguration because cloud services already configured"),
-                () -> {
-                    replaceBeanOfType("com.datastax.driver.core.Cluster", (DefaultListableBeanFactory) beanFactory, this.cloud);
-                    replaceBeanOfType("org.springframework.data.mongodb.MongoDbFactory", (DefaultListableBeanFactory) beanFactory, this.cloud);
-                    replaceBeanOfType("org.springframework.data.redis.connection.RedisConnectionFactory", (DefaultListableBeanFactory) beanFactory, this.cloud);
-                    replaceBeanOfType("org.springframework.amqp.rabbit.connection.ConnectionFactory", (DefaultListableBeanFactory) beanFactory, this.cloud);
-                    replaceBeanOfType("javax.sql.DataSource", (DefaultListableBeanFactory) beanFactory, this.cloud);
-                    replaceBeanOfType("org.springframework.mail.javamail.JavaMailSender", (DefaultListableBeanFactory) beanFactory, this.cloud);
-                }
+                () -> replacements.addAll(replaceBeansOfTypes(reconfigurationClasses, (DefaultListableBeanFactory) beanFactory, beanTypeIndex, this.cloud,
+                    this.serviceInfoIndex, properties, timings))
             );
+
+        if (!replacements.isEmpty()) {
+            addApplicationListeners(replacements, properties);
+        }
+
+        this.timings.setLastReport(timings);
+        return timings;
+    }
+
+    private void addApplicationListeners(List<BeanReplacement> replacements, ReconfigurationProperties properties) {
+        if (!(this.applicationContext instanceof ConfigurableApplicationContext)) {
+            this.logger.fine("Skipping connector metrics and warm-up because the application context is not configurable");
+            return;
+        }
+
+        ConfigurableApplicationContext applicationContext = (ConfigurableApplicationContext) this.applicationContext;
+
+        if (properties.isMetrics() && ClassPathUtils.isPresent(METER_REGISTRY_CLASS_NAME, applicationContext.getClassLoader())) {
+            applicationContext.addApplicationListener(new ConnectorMetrics(applicationContext, replacements));
+        }
+
+        if (properties.getWarmUpConnections() > 0) {
+            List<String> beanNames = replacements.stream()
+                .map(BeanReplacement::getCloudServiceBeanName)
+                .collect(Collectors.toList());
+
+            applicationContext.addApplicationListener(new ConnectorWarmUp(applicationContext, beanNames, properties.getWarmUpConnections(),
+                properties.getWarmUpTimeout(), properties.isWarmUpWait()));
+        }
     }
 
 }
@@ -16,82 +16,407 @@
 
 package org.cloudfoundry.reconfiguration;
 
-import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.AbstractLazyCreationTargetSource;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.cloud.Cloud;
+import org.springframework.cloud.service.ServiceConnectorConfig;
+import org.springframework.cloud.service.ServiceInfo;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
 
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import static org.cloudfoundry.reconfiguration.BeanUtils.getCountOfBeansForType;
 import static org.cloudfoundry.reconfiguration.BeanUtils.getSingleBeanName;
 
 final class CloudServiceUtils {
 
+    private static final String CRAC_CORE = "org.crac.Core";
+
+    private static final String CRAC_RESOURCE_BEAN_NAME = "autoReconfigurationCracResource";
+
+    private static final List<String> INFERRED_CLOSE_METHOD_NAMES = Arrays.asList("close", "shutdown");
+
     private static final Logger LOGGER = Logger.getLogger(CloudServiceUtils.class.getName());
 
+    private static final String SERVICE_BINDING_WATCHER_BEAN_NAME = "autoReconfigurationServiceBindingWatcher";
+
     private CloudServiceUtils() {
     }
 
-    static void replaceBeanOfType(String className, DefaultListableBeanFactory beanFactory, Cloud cloud) {
-        if (!ClassUtils.isPresent(className, null)) {
+    static List<BeanReplacement> replaceBeansOfTypes(List<Class<?>> klasses, DefaultListableBeanFactory beanFactory, BeanTypeIndex beanTypeIndex,
+                                                     Cloud cloud, ServiceInfoIndex serviceInfoIndex, ReconfigurationProperties properties,
+                                                     ReconfigurationTimings timings) {
+        ReconfigurationPlan plan = getPlan(klasses, beanFactory, beanTypeIndex, serviceInfoIndex, properties, timings);
+        List<BeanReplacement> replacements = plan.getReplacements();
+
+        if (properties.isReportPlan()) {
+            LOGGER.info(plan.toString());
+        }
+
+        DataSourcePoolSizer dataSourcePoolSizer = properties.isDataSourceAutoSize() ? new DataSourcePoolSizer(properties.getDataSourceInstances()) : null;
+        Function<BeanReplacement, Object> connectorCreator = properties.isLazy() ?
+            replacement -> getLazyCloudService(cloud, replacement, dataSourcePoolSizer) :
+            replacement -> getCloudService(cloud, replacement, dataSourcePoolSizer);
+        Function<BeanReplacement, Object> cloudServiceCreator =
+            replacement -> timings.time("connector-creation", replacement.getType().getName(), () -> createCloudService(connectorCreator, replacement));
+
+        List<Object> cloudServices = properties.isParallel() && replacements.size() > 1 ?
+            createInParallel(replacements, cloudServiceCreator) :
+            replacements.stream().map(cloudServiceCreator).collect(Collectors.toList());
+
+        boolean crac = properties.isCrac() && ClassPathUtils.isPresent(CRAC_CORE, beanFactory.getBeanClassLoader());
+        ServiceBindingWatcher serviceBindingWatcher = properties.getHotSwapFile() == null && !crac ? null :
+            new ServiceBindingWatcher(properties.getHotSwapFile() == null ? null : Paths.get(properties.getHotSwapFile()), properties.getHotSwapInterval(),
+                properties.getHotSwapDrainTimeout(), System::getenv);
+
+        List<Object> registeredCloudServices = new ArrayList<>();
+        for (int i = 0; i < replacements.size(); i++) {
+            BeanReplacement replacement = replacements.get(i);
+            registeredCloudServices.add(serviceBindingWatcher == null ? cloudServices.get(i) : serviceBindingWatcher.watch(replacement,
+                cloudServices.get(i), rebindCloud -> getCloudService(rebindCloud, replacement, dataSourcePoolSizer)));
+        }
+
+        plan.apply(beanFactory, beanTypeIndex, registeredCloudServices);
+
+        if (serviceBindingWatcher != null && serviceBindingWatcher.hasBindings()) {
+            beanFactory.registerDisposableBean(SERVICE_BINDING_WATCHER_BEAN_NAME, serviceBindingWatcher);
+            serviceBindingWatcher.start();
+        }
+
+        if (crac && !replacements.isEmpty()) {
+            CracConnectorResource cracConnectorResource = new CracConnectorResource(serviceBindingWatcher, System::getenv);
+            beanFactory.registerDisposableBean(CRAC_RESOURCE_BEAN_NAME, cracConnectorResource);
+            cracConnectorResource.register();
+        }
+
+        return replacements;
+    }
+
+    static void close(Object cloudService, String serviceId) {
+        Object target = getInitializedTarget(cloudService);
+
+        if (target == null) {
+            LOGGER.fine(String.format("Skipping close of connector for '%s' because it was never created", serviceId));
             return;
         }
 
-        Class<?> klass = ClassUtils.resolveClassName(className, null);
+        Method closeMethod = getCloseMethod(target);
 
-        if (!hasSingleBean(beanFactory, klass) || !hasSingleCloudService(cloud, klass)) {
+        if (!(target instanceof DisposableBean) && !(target instanceof AutoCloseable) && closeMethod == null) {
+            LOGGER.warning(String.format("Unable to close connector for '%s' because %s has no close or shutdown method", serviceId,
+                target.getClass().getName()));
             return;
         }
 
-        String beanName = getSingleBeanName(beanFactory, klass);
-        String cloudServiceBeanName = getSingleCloudServiceName(cloud, klass);
+        try {
+            if (target instanceof DisposableBean) {
+                ((DisposableBean) target).destroy();
+            } else if (target instanceof AutoCloseable) {
+                ((AutoCloseable) target).close();
+            } else {
+                ReflectionUtils.makeAccessible(closeMethod);
+                closeMethod.invoke(target);
+            }
+
+            LOGGER.info(String.format("Closed connector for '%s'", serviceId));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, String.format("Unable to close connector for '%s'", serviceId), e);
+        }
+    }
+
+    static Object getCloudService(Cloud cloud, BeanReplacement replacement, DataSourcePoolSizer dataSourcePoolSizer) {
+        Object cloudService = cloud.getServiceConnector(replacement.getServiceId(), replacement.getType(),
+            getServiceConnectorConfig(replacement.getType(), replacement.getServiceInfo(), dataSourcePoolSizer));
+
+        if (replacement.getReplicaServiceInfos().isEmpty()) {
+            return cloudService;
+        }
+
+        List<DataSource> replicas = replacement.getReplicaServiceInfos().stream()
+            .map(serviceInfo -> cloud.getServiceConnector(serviceInfo.getId(), DataSource.class,
+                getServiceConnectorConfig(DataSource.class, serviceInfo, dataSourcePoolSizer)))
+            .collect(Collectors.toList());
+
+        LOGGER.info(String.format("Routing read-only transactions for '%s' to replicas %s", replacement.getCloudServiceBeanName(),
+            replacement.getReplicaServiceInfos().stream().map(ServiceInfo::getId).collect(Collectors.toList())));
+
+        return ReplicaRoutingDataSource.create((DataSource) cloudService, replicas);
+    }
+
+    static Object getInitializedTarget(Object cloudService) {
+        if (!(cloudService instanceof Advised)) {
+            return cloudService;
+        }
+
+        TargetSource targetSource = ((Advised) cloudService).getTargetSource();
+
+        if (targetSource instanceof AbstractLazyCreationTargetSource && !((AbstractLazyCreationTargetSource) targetSource).isInitialized()) {
+            return null;
+        }
+
+        try {
+            return getInitializedTarget(targetSource.getTarget());
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Unable to resolve proxied connector", e);
+            return null;
+        }
+    }
+
+    static Object getLazyCloudService(Cloud cloud, BeanReplacement replacement, DataSourcePoolSizer dataSourcePoolSizer) {
+        Class<?> klass = replacement.getType();
+
+        if (!klass.isInterface()) {
+            LOGGER.fine(String.format("Creating '%s' eagerly because it is not an interface", klass.getName()));
+            return getCloudService(cloud, replacement, dataSourcePoolSizer);
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setInterfaces(ClassUtils.getAllInterfacesForClass(klass));
+        proxyFactory.setTargetSource(new AbstractLazyCreationTargetSource() {
+
+            @Override
+            public Class<?> getTargetClass() {
+                return klass;
+            }
+
+            @Override
+            protected Object createObject() {
+                LOGGER.info(String.format("Creating '%s' for first use of '%s'", klass.getName(), replacement.getCloudServiceBeanName()));
+                return getCloudService(cloud, replacement, dataSourcePoolSizer);
+            }
+
+        });
+
+        return proxyFactory.getProxy(CloudServiceUtils.class.getClassLoader());
+    }
+
+    static boolean isCloseable(Object cloudService) {
+        Object target = getInitializedTarget(cloudService);
+        return target == null || target instanceof DisposableBean || target instanceof AutoCloseable || getCloseMethod(target) != null;
+    }
+
+    private static Object createCloudService(Function<BeanReplacement, Object> connectorCreator, BeanReplacement replacement) {
+        ReconfigurationEvent event = ReconfigurationEvents.beginConnectorCreation(replacement.getType());
+
+        try {
+            Object cloudService = connectorCreator.apply(replacement);
+            event.commit(replacement.getBeanName(), replacement.getCloudServiceBeanName(), "created");
+            return cloudService;
+        } catch (RuntimeException | Error e) {
+            event.commit(replacement.getBeanName(), replacement.getCloudServiceBeanName(), String.format("failed: %s", e));
+            throw e;
+        }
+    }
+
+    private static List<Object> createInParallel(List<BeanReplacement> replacements, Function<BeanReplacement, Object> cloudServiceCreator) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger counter = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(replacements.size(), Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, String.format("auto-reconfiguration-%d", counter.incrementAndGet()));
+            thread.setContextClassLoader(classLoader);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Map<String, Object> created = new LinkedHashMap<>();
+        AtomicBoolean failed = new AtomicBoolean();
+
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (BeanReplacement replacement : replacements) {
+                Callable<Object> task = () -> {
+                    Object cloudService = cloudServiceCreator.apply(replacement);
+
+                    synchronized (created) {
+                        if (failed.get()) {
+                            close(cloudService, replacement.getCloudServiceBeanName());
+                        } else {
+                            created.put(replacement.getCloudServiceBeanName(), cloudService);
+                        }
+                    }
+
+                    return cloudService;
+                };
+                futures.add(executor.submit(task));
+            }
+
+            List<Object> cloudServices = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                cloudServices.add(getResult(future));
+            }
+
+            return cloudServices;
+        } catch (RuntimeException | Error e) {
+            synchronized (created) {
+                failed.set(true);
+                created.forEach((serviceId, cloudService) -> close(cloudService, serviceId));
+            }
+
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Method getCloseMethod(Object target) {
+        for (String methodName : INFERRED_CLOSE_METHOD_NAMES) {
+            Method method = ClassUtils.getMethodIfAvailable(target.getClass(), methodName);
 
-        beanFactory.registerSingleton(cloudServiceBeanName, getSingleCloudService(cloud, klass));
-        beanFactory.removeBeanDefinition(beanName);
-        beanFactory.registerAlias(cloudServiceBeanName, beanName);
+            if (method != null) {
+                return method;
+            }
+        }
 
-        LOGGER.info(String.format("'%s' bean of type with '%s' reconfigured with '%s' bean", beanName, className, cloudServiceBeanName));
+        return null;
     }
 
-    private static Object getSingleCloudService(Cloud cloud, Class<?> klass) {
-        return cloud.getSingletonServiceConnector(klass, null);
+    private static String getCloudServiceBeanName(Class<?> klass, ServiceInfo serviceInfo, Set<String> serviceIds) {
+        if (serviceIds.add(serviceInfo.getId())) {
+            return serviceInfo.getId();
+        }
+
+        return String.format("%s-%s", serviceInfo.getId(), StringUtils.uncapitalize(klass.getSimpleName()));
     }
 
-    private static String getSingleCloudServiceName(Cloud cloud, Class<?> klass) {
-        return cloud.getServiceInfos(klass).get(0).getId();
+    private static DataSourceReplicas getDataSourceReplicas(Class<?> klass, ServiceInfoIndex serviceInfoIndex, ReconfigurationProperties properties) {
+        if (!properties.isDataSourceReplicas() || !DataSource.class.equals(klass) || serviceInfoIndex.getServiceInfos(klass).size() < 2) {
+            return null;
+        }
+
+        return DataSourceReplicas.resolve(serviceInfoIndex.getServiceInfos(klass), serviceInfoIndex::getTags);
     }
 
-    private static boolean hasSingleBean(ListableBeanFactory beanFactory, Class<?> klass) {
-        int size = getCountOfBeansForType(beanFactory, klass);
+    private static ReconfigurationPlan getPlan(List<Class<?>> klasses, DefaultListableBeanFactory beanFactory, BeanTypeIndex beanTypeIndex,
+                                               ServiceInfoIndex serviceInfoIndex, ReconfigurationProperties properties, ReconfigurationTimings timings) {
+        ReconfigurationPlan plan = new ReconfigurationPlan();
+        Set<String> beanNames = new HashSet<>();
+        Set<String> serviceIds = new HashSet<>();
+
+        for (Class<?> klass : klasses) {
+            BeanReplacement replacement = timings.time("bean-lookup", klass.getName(),
+                () -> getReplacement(klass, beanFactory, beanTypeIndex, serviceInfoIndex, properties, beanNames, serviceIds, plan));
 
-        if (size == 0) {
-            LOGGER.fine(String.format("Skipping reconfiguration of '%s' because there were no beans of type", klass.getName()));
-            return false;
+            if (replacement != null) {
+                plan.replace(replacement);
+            }
         }
 
-        if (size > 1) {
-            LOGGER.fine(String.format("Skipping reconfiguration of '%s' because there multiple beans of type", klass.getName()));
-            return false;
+        return plan;
+    }
+
+    private static BeanReplacement getReplacement(Class<?> klass, DefaultListableBeanFactory beanFactory, BeanTypeIndex beanTypeIndex,
+                                                  ServiceInfoIndex serviceInfoIndex, ReconfigurationProperties properties, Set<String> beanNames,
+                                                  Set<String> serviceIds, ReconfigurationPlan plan) {
+        ReconfigurationEvent event = ReconfigurationEvents.beginReplacementDecision(klass);
+        String beanName = getCountOfBeansForType(beanTypeIndex, klass) == 1 ? getSingleBeanName(beanTypeIndex, klass) : null;
+        DataSourceReplicas replicas = getDataSourceReplicas(klass, serviceInfoIndex, properties);
+        String skipReason = getSkipReason(klass, beanName, beanFactory, beanTypeIndex, serviceInfoIndex, replicas, beanNames);
+
+        if (skipReason != null) {
+            LOGGER.fine(String.format("Skipping reconfiguration of '%s' because %s", klass.getName(), skipReason));
+            event.commit(beanName, null, String.format("skipped: %s", skipReason));
+            plan.skip(klass, skipReason);
+            return null;
         }
 
-        return true;
+        ServiceInfo serviceInfo = replicas == null ? getSingleCloudServiceInfo(serviceInfoIndex, klass) : replicas.getPrimary();
+        List<ServiceInfo> replicaServiceInfos = replicas == null ? Collections.emptyList() : replicas.getReplicas();
+        String cloudServiceBeanName = getCloudServiceBeanName(klass, serviceInfo, serviceIds);
+
+        event.commit(beanName, cloudServiceBeanName, replicas == null ? "planned" : "planned with replicas");
+        return new BeanReplacement(klass, beanName, cloudServiceBeanName, serviceInfo, replicaServiceInfos);
+    }
+
+    private static Object getResult(Future<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while creating cloud services", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        }
     }
 
-    private static boolean hasSingleCloudService(Cloud cloud, Class<?> klass) {
-        int size = cloud.getServiceInfos(klass).size();
+    private static String getSkipReason(Class<?> klass, String beanName, DefaultListableBeanFactory beanFactory, BeanTypeIndex beanTypeIndex,
+                                        ServiceInfoIndex serviceInfoIndex, DataSourceReplicas replicas, Set<String> beanNames) {
+        int beanCount = getCountOfBeansForType(beanTypeIndex, klass);
+
+        if (beanCount == 0) {
+            return "there were no beans of type";
+        }
 
-        if (size == 0) {
-            LOGGER.fine(String.format("Skipping reconfiguration of '%s' because there were no services of type", klass.getName()));
-            return false;
+        if (beanCount > 1) {
+            return "there multiple beans of type";
         }
 
-        if (size > 1) {
-            LOGGER.fine(String.format("Skipping reconfiguration of '%s' because there multiple services of type", klass.getName()));
-            return false;
+        int serviceCount = serviceInfoIndex.getServiceInfos(klass).size();
+
+        if (serviceCount == 0) {
+            return "there were no services of type";
         }
 
-        return true;
+        if (serviceCount > 1 && replicas == null) {
+            return "there multiple services of type";
+        }
+
+        if (!beanFactory.containsBeanDefinition(beanName)) {
+            return String.format("'%s' has no bean definition", beanName);
+        }
+
+        if (!beanNames.add(beanName)) {
+            return String.format("'%s' is already being reconfigured", beanName);
+        }
+
+        return null;
+    }
+
+    private static ServiceConnectorConfig getServiceConnectorConfig(Class<?> klass, ServiceInfo serviceInfo, DataSourcePoolSizer dataSourcePoolSizer) {
+        if (dataSourcePoolSizer != null && DataSource.class.equals(klass)) {
+            return dataSourcePoolSizer.getDataSourceConfig(serviceInfo);
+        }
+
+        return null;
+    }
+
+    private static ServiceInfo getSingleCloudServiceInfo(ServiceInfoIndex serviceInfoIndex, Class<?> klass) {
+        return serviceInfoIndex.getServiceInfos(klass).get(0);
     }
 
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import com.rabbitmq.client.impl.MicrometerMetricsCollector;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.target.AbstractLazyCreationTargetSource;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Logger;
+
+import static org.cloudfoundry.reconfiguration.CloudServiceUtils.getInitializedTarget;
+import static org.cloudfoundry.reconfiguration.LettuceUtils.getCommandLatencyCollector;
+
+final class ConnectorMetrics implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final String CACHING_CONNECTION_FACTORY = "org.springframework.amqp.rabbit.connection.CachingConnectionFactory";
+
+    private static final String DBCP2_DATA_SOURCE = "org.apache.commons.dbcp2.BasicDataSource";
+
+    private static final String HIKARI_DATA_SOURCE = "com.zaxxer.hikari.HikariDataSource";
+
+    private static final String LETTUCE_CONNECTION_FACTORY = "org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory";
+
+    private static final String METER_PREFIX = "cloud.connections.";
+
+    private static final String TOMCAT_DATA_SOURCE = "org.apache.tomcat.jdbc.pool.DataSource";
+
+    private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+    private final ApplicationContext applicationContext;
+
+    private final AtomicBoolean bound = new AtomicBoolean();
+
+    private final List<BeanReplacement> replacements;
+
+    ConnectorMetrics(ApplicationContext applicationContext, List<BeanReplacement> replacements) {
+        this.applicationContext = applicationContext;
+        this.replacements = replacements;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != this.applicationContext || !this.bound.compareAndSet(false, true)) {
+            return;
+        }
+
+        MeterRegistry registry = this.applicationContext.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        if (registry == null) {
+            this.logger.fine("Skipping connector metrics because there is no unique MeterRegistry");
+            return;
+        }
+
+        for (BeanReplacement replacement : this.replacements) {
+            bindTo(registry, replacement);
+        }
+    }
+
+    void bindTo(MeterRegistry registry, BeanReplacement replacement) {
+        String beanName = replacement.getCloudServiceBeanName();
+        Object bean = getTarget(this.applicationContext.getBean(beanName));
+        Tags tags = Tags.of("service", replacement.getServiceInfo().getId(), "bean", replacement.getBeanName(), "type", getType(replacement));
+
+        if (bean == null) {
+            this.logger.fine(String.format("Skipping metrics for '%s' because it is lazy and has not been used", beanName));
+            return;
+        } else if (AopUtils.isAopProxy(bean)) {
+            this.logger.fine(String.format("Skipping metrics for '%s' because it is proxied", beanName));
+        } else if (isInstance(HIKARI_DATA_SOURCE, bean)) {
+            bindHikari(registry, (HikariDataSource) bean, tags);
+        } else if (isInstance(TOMCAT_DATA_SOURCE, bean)) {
+            bindTomcat(registry, (org.apache.tomcat.jdbc.pool.DataSource) bean, tags);
+        } else if (isInstance(DBCP2_DATA_SOURCE, bean)) {
+            bindDbcp2(registry, (BasicDataSource) bean, tags);
+        } else if (isInstance(CACHING_CONNECTION_FACTORY, bean)) {
+            bindRabbit(registry, (CachingConnectionFactory) bean, tags);
+        } else if (isInstance(LETTUCE_CONNECTION_FACTORY, bean) && getCommandLatencyCollector((LettuceConnectionFactory) bean) != null) {
+            bindLettuce(registry, getCommandLatencyCollector((LettuceConnectionFactory) bean), tags);
+        } else {
+            this.logger.fine(String.format("Skipping metrics for '%s' because '%s' does not expose connector statistics", beanName, bean.getClass().getName()));
+            return;
+        }
+
+        this.logger.info(String.format("Bound metrics for '%s'", beanName));
+    }
+
+    private static void bindDbcp2(MeterRegistry registry, BasicDataSource dataSource, Tags tags) {
+        gauge(registry, "active", dataSource, BasicDataSource::getNumActive, tags);
+        gauge(registry, "idle", dataSource, BasicDataSource::getNumIdle, tags);
+        gauge(registry, "max", dataSource, BasicDataSource::getMaxTotal, tags);
+    }
+
+    private void bindHikari(MeterRegistry registry, HikariDataSource dataSource, Tags tags) {
+        gauge(registry, "active", dataSource, hikariPool(HikariPoolMXBean::getActiveConnections), tags);
+        gauge(registry, "idle", dataSource, hikariPool(HikariPoolMXBean::getIdleConnections), tags);
+        gauge(registry, "pending", dataSource, hikariPool(HikariPoolMXBean::getThreadsAwaitingConnection), tags);
+        gauge(registry, "max", dataSource, HikariDataSource::getMaximumPoolSize, tags);
+
+        if (dataSource.getMetricsTrackerFactory() != null || dataSource.getMetricRegistry() != null) {
+            return;
+        }
+
+        CompositeMeterRegistry taggedRegistry = new CompositeMeterRegistry(registry.config().clock(), Collections.singletonList(registry));
+        taggedRegistry.config().commonTags(tags);
+
+        try {
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(taggedRegistry));
+        } catch (IllegalStateException e) {
+            this.logger.fine(String.format("Skipping Hikari acquire metrics: %s", e.getMessage()));
+        }
+    }
+
+    private static void bindLettuce(MeterRegistry registry, LettuceCommandLatencyCollector collector, Tags tags) {
+        collector.setRecorder((command, latency) ->
+            Timer.builder("cloud.redis.commands")
+                .tags(tags)
+                .tag("command", command)
+                .register(registry)
+                .record(latency, TimeUnit.NANOSECONDS));
+    }
+
+    private static void bindRabbit(MeterRegistry registry, CachingConnectionFactory connectionFactory, Tags tags) {
+        connectionFactory.getRabbitConnectionFactory().setMetricsCollector(new MicrometerMetricsCollector(registry, "cloud.rabbitmq", tags));
+    }
+
+    private static void bindTomcat(MeterRegistry registry, org.apache.tomcat.jdbc.pool.DataSource dataSource, Tags tags) {
+        gauge(registry, "active", dataSource, org.apache.tomcat.jdbc.pool.DataSource::getActive, tags);
+        gauge(registry, "idle", dataSource, org.apache.tomcat.jdbc.pool.DataSource::getIdle, tags);
+        gauge(registry, "pending", dataSource, org.apache.tomcat.jdbc.pool.DataSource::getWaitCount, tags);
+        gauge(registry, "max", dataSource, org.apache.tomcat.jdbc.pool.DataSource::getMaxActive, tags);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, T object, ToDoubleFunction<T> function, Tags tags) {
+        Gauge.builder(METER_PREFIX + name, object, function)
+            .tags(tags)
+            .register(registry);
+    }
+
+    private static Object getTarget(Object bean) {
+        return bean instanceof Advised && ((Advised) bean).getTargetSource() instanceof AbstractLazyCreationTargetSource ? getInitializedTarget(bean) : bean;
+    }
+
+    private static String getType(BeanReplacement replacement) {
+        String type = replacement.getType().getName();
+
+        if (type.startsWith("javax.sql.")) {
+            return "jdbc";
+        } else if (type.contains(".redis.")) {
+            return "redis";
+        } else if (type.contains(".amqp.")) {
+            return "rabbitmq";
+        } else {
+            return replacement.getType().getSimpleName();
+        }
+    }
+
+    private static ToDoubleFunction<HikariDataSource> hikariPool(ToDoubleFunction<HikariPoolMXBean> function) {
+        return dataSource -> {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool == null ? 0 : function.applyAsDouble(pool);
+        };
+    }
+
+    private static boolean isInstance(String className, Object bean) {
+        ClassLoader classLoader = bean.getClass().getClassLoader();
+        return ClassUtils.isPresent(className, classLoader) && ClassUtils.resolveClassName(className, classLoader).isInstance(bean);
+    }
+
+}
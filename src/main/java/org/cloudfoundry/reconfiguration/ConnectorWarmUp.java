@@ -0,0 +1,253 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+final class ConnectorWarmUp implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final String RABBIT_CONNECTION_FACTORY = "org.springframework.amqp.rabbit.connection.ConnectionFactory";
+
+    private static final String REDIS_CONNECTION_FACTORY = "org.springframework.data.redis.connection.RedisConnectionFactory";
+
+    private static final int MAXIMUM_THREADS = 16;
+
+    private final Logger logger = Logger.getLogger(this.getClass().getName());
+
+    private final ApplicationContext applicationContext;
+
+    private final List<String> beanNames;
+
+    private final int connections;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final long timeout;
+
+    private final boolean wait;
+
+    ConnectorWarmUp(ApplicationContext applicationContext, List<String> beanNames, int connections, long timeout, boolean wait) {
+        this.applicationContext = applicationContext;
+        this.beanNames = beanNames;
+        this.connections = connections;
+        this.timeout = timeout;
+        this.wait = wait;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != this.applicationContext || !this.started.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (this.wait) {
+            warmUp();
+        } else {
+            Thread thread = new Thread(this::warmUp, "auto-reconfiguration-warm-up");
+            thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        OpenedConnections opened = new OpenedConnections();
+
+        List<String> warmedBeanNames = new ArrayList<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String beanName : this.beanNames) {
+            Callable<Void> task = getWarmUpTask(this.applicationContext.getBean(beanName), opened);
+
+            if (task == null) {
+                this.logger.fine(String.format("Skipping warm-up of '%s' because its type is not supported", beanName));
+                continue;
+            }
+
+            for (int i = 0; i < this.connections; i++) {
+                warmedBeanNames.add(beanName);
+                tasks.add(task);
+            }
+        }
+
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = getExecutor(tasks.size());
+
+        try {
+            List<Future<Void>> futures = executor.invokeAll(tasks, this.timeout, TimeUnit.MILLISECONDS);
+            logResults(warmedBeanNames, futures, start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.logger.warning("Interrupted while warming up connections");
+        } finally {
+            executor.shutdownNow();
+            opened.close();
+        }
+    }
+
+    private static Callable<Void> getDataSourceTask(DataSource dataSource, OpenedConnections opened) {
+        return () -> {
+            Connection connection = dataSource.getConnection();
+            opened.add(connection);
+            connection.isValid(0);
+            return null;
+        };
+    }
+
+    private static Callable<Void> getRabbitTask(Object connectionFactory, OpenedConnections opened) {
+        return () -> {
+            org.springframework.amqp.rabbit.connection.Connection connection = ((ConnectionFactory) connectionFactory).createConnection();
+            opened.add(connection::close);
+            return null;
+        };
+    }
+
+    private static Callable<Void> getRedisTask(Object connectionFactory, OpenedConnections opened) {
+        return () -> {
+            RedisConnection connection = ((RedisConnectionFactory) connectionFactory).getConnection();
+            opened.add(connection::close);
+            connection.ping();
+            return null;
+        };
+    }
+
+    private static Callable<Void> getWarmUpTask(Object bean, OpenedConnections opened) {
+        if (bean instanceof DataSource) {
+            return getDataSourceTask((DataSource) bean, opened);
+        } else if (isInstance(REDIS_CONNECTION_FACTORY, bean)) {
+            return getRedisTask(bean, opened);
+        } else if (isInstance(RABBIT_CONNECTION_FACTORY, bean)) {
+            return getRabbitTask(bean, opened);
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isInstance(String className, Object bean) {
+        ClassLoader classLoader = bean.getClass().getClassLoader();
+        return ClassUtils.isPresent(className, classLoader) && ClassUtils.resolveClassName(className, classLoader).isInstance(bean);
+    }
+
+    private ExecutorService getExecutor(int tasks) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger counter = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(Math.min(tasks, MAXIMUM_THREADS), runnable -> {
+            Thread thread = new Thread(runnable, String.format("auto-reconfiguration-warm-up-%d", counter.incrementAndGet()));
+            thread.setContextClassLoader(classLoader);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void logResults(List<String> warmedBeanNames, List<Future<Void>> futures, long start) throws InterruptedException {
+        for (String beanName : new LinkedHashSet<>(warmedBeanNames)) {
+            int succeeded = 0;
+            int failed = 0;
+            int timedOut = 0;
+            String failure = null;
+
+            for (int i = 0; i < futures.size(); i++) {
+                if (!beanName.equals(warmedBeanNames.get(i))) {
+                    continue;
+                }
+
+                Future<Void> future = futures.get(i);
+                if (future.isCancelled()) {
+                    timedOut++;
+                    continue;
+                }
+
+                try {
+                    future.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    failure = String.valueOf(e.getCause());
+                }
+            }
+
+            String message = String.format("Warmed up '%s' in %d ms: %d succeeded, %d failed, %d timed out", beanName,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), succeeded, failed, timedOut);
+
+            if (failed > 0 || timedOut > 0) {
+                this.logger.warning(failure == null ? message : String.format("%s (%s)", message, failure));
+            } else {
+                this.logger.info(message);
+            }
+        }
+    }
+
+    private final class OpenedConnections {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private final Queue<AutoCloseable> connections = new ConcurrentLinkedQueue<>();
+
+        private void add(AutoCloseable connection) {
+            this.connections.add(connection);
+
+            if (this.closed.get()) {
+                closeConnections();
+            }
+        }
+
+        private void close() {
+            this.closed.set(true);
+            closeConnections();
+        }
+
+        private void closeConnections() {
+            for (AutoCloseable connection = this.connections.poll(); connection != null; connection = this.connections.poll()) {
+                try {
+                    connection.close();
+                } catch (Exception e) {
+                    ConnectorWarmUp.this.logger.log(Level.FINE, "Unable to close warm-up connection", e);
+                }
+            }
+        }
+
+    }
+
+}
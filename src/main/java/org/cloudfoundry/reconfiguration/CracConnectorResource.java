@@ -0,0 +1,96 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.Cloud;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+final class CracConnectorResource implements DisposableBean, Resource {
+
+    private static final Logger LOGGER = Logger.getLogger(CracConnectorResource.class.getName());
+
+    private final Function<String, String> environment;
+
+    private final ServiceBindingWatcher serviceBindingWatcher;
+
+    private volatile boolean checkpointed;
+
+    private volatile boolean destroyed;
+
+    CracConnectorResource(ServiceBindingWatcher serviceBindingWatcher, Function<String, String> environment) {
+        this.serviceBindingWatcher = serviceBindingWatcher;
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        if (this.destroyed || !this.checkpointed) {
+            return;
+        }
+
+        this.checkpointed = false;
+
+        SharedCloudHolder.reset();
+
+        Cloud cloud = SharedCloudHolder.create(this.environment);
+        if (cloud == null) {
+            LOGGER.warning("Unable to rebuild connectors after restore because no cloud was detected");
+            return;
+        }
+
+        this.serviceBindingWatcher.restore(cloud, this.environment.apply("VCAP_SERVICES"));
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        if (this.destroyed) {
+            return;
+        }
+
+        List<String> unsupportedServiceIds = this.serviceBindingWatcher.getUnsupportedServiceIds();
+        if (!unsupportedServiceIds.isEmpty()) {
+            throw new IllegalStateException(String.format("Unable to checkpoint because connectors for %s cannot be rebuilt after restore",
+                unsupportedServiceIds));
+        }
+
+        List<String> uncloseableServiceIds = this.serviceBindingWatcher.getUncloseableServiceIds();
+        if (!uncloseableServiceIds.isEmpty()) {
+            throw new IllegalStateException(String.format("Unable to checkpoint because connectors for %s cannot be closed", uncloseableServiceIds));
+        }
+
+        LOGGER.info("Closing connectors before checkpoint");
+        this.serviceBindingWatcher.checkpoint();
+        this.checkpointed = true;
+    }
+
+    @Override
+    public void destroy() {
+        this.destroyed = true;
+    }
+
+    void register() {
+        Core.getGlobalContext().register(this);
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.cloudfoundry.reconfiguration.ServiceLoaderUtils.getServiceClassNames;
+import static org.cloudfoundry.reconfiguration.ServiceLoaderUtils.loadServices;
+
+final class CreatorRegistry {
+
+    static final String INDEX = "META-INF/auto-reconfiguration/creators.index";
+
+    private static final Logger LOGGER = Logger.getLogger(CreatorRegistry.class.getName());
+
+    private CreatorRegistry() {
+    }
+
+    static <T> List<T> loadCreators(Class<T> creatorType) {
+        ClassLoader classLoader = CreatorRegistry.class.getClassLoader();
+        URL index = classLoader == null ? null : classLoader.getResource(INDEX);
+
+        if (index == null) {
+            return loadServices(creatorType);
+        }
+
+        try {
+            return loadCreators(creatorType, index, classLoader);
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Unable to read creator registry %s, falling back to service loading", index));
+            return loadServices(creatorType);
+        }
+    }
+
+    static <T> List<T> loadCreators(Class<T> creatorType, URL index, ClassLoader classLoader) throws IOException {
+        List<T> creators = new ArrayList<>();
+        Set<String> indexedClassNames = new HashSet<>();
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] entry = line.split("\t", -1);
+
+                if (entry.length != 3 || !creatorType.getName().equals(entry[0])) {
+                    continue;
+                }
+
+                indexedClassNames.add(entry[1]);
+                T creator = loadCreator(creatorType, entry[1], entry[2], classLoader);
+                if (creator != null) {
+                    creators.add(creator);
+                }
+            }
+        }
+
+        for (String creatorClassName : getServiceClassNames(creatorType, classLoader)) {
+            if (indexedClassNames.contains(creatorClassName)) {
+                continue;
+            }
+
+            LOGGER.fine(String.format("Loading '%s' creator '%s' that is not in the creator registry", creatorType.getName(), creatorClassName));
+            T creator = loadCreator(creatorType, creatorClassName, "", classLoader);
+            if (creator != null) {
+                creators.add(creator);
+            }
+        }
+
+        return creators;
+    }
+
+    static <T> T loadCreator(Class<T> creatorType, String creatorClassName, String connectorType, ClassLoader classLoader) {
+        if (!connectorType.isEmpty() && !ClassPathUtils.isPresent(connectorType, classLoader)) {
+            LOGGER.fine(String.format("Skipping '%s' creator '%s' because '%s' is not present", creatorType.getName(), creatorClassName, connectorType));
+            return null;
+        }
+
+        return instantiate(creatorType, creatorClassName, classLoader);
+    }
+
+    private static <T> T instantiate(Class<T> creatorType, String creatorClassName, ClassLoader classLoader) {
+        try {
+            return creatorType.cast(ClassUtils.forName(creatorClassName, classLoader).getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            LOGGER.fine(String.format("Skipping '%s' creator '%s': %s", creatorType.getName(), creatorClassName, e.getMessage()));
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.service.ServiceConnectorCreator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+final class CreatorRegistryGenerator {
+
+    private CreatorRegistryGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CreatorRegistryGenerator <root> <prefix>");
+        }
+
+        Path root = Paths.get(args[0]);
+        List<String> entries = getEntries(root.resolve("META-INF/services"), args[1]);
+
+        Path index = root.resolve(CreatorRegistry.INDEX);
+        Files.createDirectories(index.getParent());
+        Files.write(index, entries, StandardCharsets.UTF_8);
+    }
+
+    private static String getConnectorType(String creatorClassName) {
+        try {
+            Object creator = Class.forName(creatorClassName).getDeclaredConstructor().newInstance();
+            return creator instanceof ServiceConnectorCreator ? ((ServiceConnectorCreator<?, ?>) creator).getServiceConnectorType().getName() : "";
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException(String.format("Unable to determine the connector type of '%s'", creatorClassName), e);
+        }
+    }
+
+    private static List<String> getEntries(Path services, String prefix) throws IOException {
+        List<String> entries = new ArrayList<>();
+
+        for (Path file : getServiceFiles(services, prefix)) {
+            String creatorType = file.getFileName().toString();
+
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String creatorClassName = line.replaceAll("#.*", "").trim();
+
+                if (!creatorClassName.isEmpty()) {
+                    entries.add(String.format("%s\t%s\t%s", creatorType, creatorClassName, getConnectorType(creatorClassName)));
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    private static List<Path> getServiceFiles(Path services, String prefix) throws IOException {
+        List<Path> serviceFiles = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(services, prefix + ".*")) {
+            files.forEach(serviceFiles::add);
+        }
+
+        serviceFiles.sort(null);
+        return serviceFiles;
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.service.PooledServiceConnectorConfig.PoolConfig;
+import org.springframework.cloud.service.ServiceInfo;
+import org.springframework.cloud.service.relational.DataSourceConfig;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import static org.cloudfoundry.reconfiguration.VcapServicesUtils.getCredentials;
+
+final class DataSourcePoolSizer {
+
+    private static final List<String> CONNECTION_LIMIT_KEYS = Arrays.asList("max_connections", "maxConnections", "connection_limit", "connectionLimit");
+
+    private static final Logger LOGGER = Logger.getLogger(DataSourcePoolSizer.class.getName());
+
+    private static final int MAX_WAIT_MILLIS = 30_000;
+
+    private static final long MEMORY_PER_CONNECTION = 16L * 1024 * 1024;
+
+    private static final long UNLIMITED_MEMORY = 1L << 40;
+
+    private final Path cgroupRoot;
+
+    private final Function<String, String> environment;
+
+    private final Integer instances;
+
+    DataSourcePoolSizer(Integer instances) {
+        this(Paths.get("/sys/fs/cgroup"), System::getenv, instances);
+    }
+
+    DataSourcePoolSizer(Path cgroupRoot, Function<String, String> environment, Integer instances) {
+        this.cgroupRoot = cgroupRoot;
+        this.environment = environment;
+        this.instances = instances;
+    }
+
+    DataSourceConfig getDataSourceConfig(ServiceInfo serviceInfo) {
+        Integer connectionLimit = getConnectionLimit(serviceInfo.getId());
+        Integer instances = connectionLimit == null ? null : getInstances();
+
+        if (connectionLimit != null && instances == null) {
+            LOGGER.warning(String.format("Skipping sizing of '%s' DataSource pool because the number of instances sharing its connection limit of %d " +
+                "is unknown; set auto-reconfiguration.datasource.instances", serviceInfo.getId(), connectionLimit));
+            return null;
+        }
+
+        int cpus = getCpus();
+        long memoryLimit = getMemoryLimit();
+        int maxPoolSize = cpus * 2 + 1;
+
+        if (memoryLimit > 0) {
+            maxPoolSize = (int) Math.min(maxPoolSize, memoryLimit / MEMORY_PER_CONNECTION);
+        }
+
+        if (connectionLimit != null) {
+            maxPoolSize = Math.min(maxPoolSize, connectionLimit / instances);
+        }
+
+        maxPoolSize = Math.max(1, maxPoolSize);
+        int minIdle = Math.max(1, maxPoolSize / 4);
+
+        LOGGER.info(String.format("Sizing '%s' DataSource pool with max size %d, min idle %d and max wait %dms " +
+                "(cpus: %d, memory limit: %s, instances: %s, connection limit: %s)", serviceInfo.getId(), maxPoolSize, minIdle, MAX_WAIT_MILLIS,
+            cpus, memoryLimit > 0 ? String.format("%dM", memoryLimit / (1024 * 1024)) : "unlimited", instances == null ? "n/a" : instances.toString(),
+            connectionLimit == null ? "none" : connectionLimit.toString()));
+
+        return new DataSourceConfig(new PoolConfig(minIdle, maxPoolSize, MAX_WAIT_MILLIS), null);
+    }
+
+    private Integer getConnectionLimit(String serviceName) {
+        String vcapServices = this.environment.apply("VCAP_SERVICES");
+
+        if (vcapServices == null || vcapServices.isEmpty()) {
+            return null;
+        }
+
+        try {
+            Map<String, Object> credentials = getCredentials(new StringReader(vcapServices), serviceName);
+
+            return CONNECTION_LIMIT_KEYS.stream()
+                .map(key -> parseInteger(credentials.get(key)))
+                .filter(limit -> limit != null && limit > 0)
+                .findFirst()
+                .orElse(null);
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Unable to read connection limit for '%s': %s", serviceName, e.getMessage()));
+            return null;
+        }
+    }
+
+    private int getCpus() {
+        try {
+            List<String> cpuMax = readLines("cpu.max");
+
+            if (!cpuMax.isEmpty()) {
+                String[] quota = cpuMax.get(0).trim().split("\\s+");
+
+                if (quota.length == 2 && !"max".equals(quota[0])) {
+                    return getCpus(Long.parseLong(quota[0]), Long.parseLong(quota[1]));
+                }
+            }
+
+            List<String> cfsQuota = readLines("cpu/cpu.cfs_quota_us");
+            List<String> cfsPeriod = readLines("cpu/cpu.cfs_period_us");
+
+            if (!cfsQuota.isEmpty() && !cfsPeriod.isEmpty()) {
+                long quota = Long.parseLong(cfsQuota.get(0).trim());
+
+                if (quota > 0) {
+                    return getCpus(quota, Long.parseLong(cfsPeriod.get(0).trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.fine(String.format("Unable to read CPU quota: %s", e.getMessage()));
+        }
+
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static int getCpus(long quota, long period) {
+        return (int) Math.max(1, (quota + period - 1) / period);
+    }
+
+    private Integer getInstances() {
+        if (this.instances != null && this.instances > 0) {
+            return this.instances;
+        }
+
+        try {
+            Integer instances = parseInteger(VcapApplicationUtils.getApplication(this.environment.apply("VCAP_APPLICATION")).get("instances"));
+            return instances != null && instances > 0 ? instances : null;
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Unable to read application instances: %s", e.getMessage()));
+            return null;
+        }
+    }
+
+    private long getMemoryLimit() {
+        for (String file : Arrays.asList("memory.max", "memory/memory.limit_in_bytes")) {
+            List<String> lines = readLines(file);
+
+            if (!lines.isEmpty() && !"max".equals(lines.get(0).trim())) {
+                long limit = parseMemory(lines.get(0));
+
+                if (limit > 0 && limit < UNLIMITED_MEMORY) {
+                    return limit;
+                }
+            }
+        }
+
+        String memoryLimit = this.environment.apply("MEMORY_LIMIT");
+        return memoryLimit == null ? -1 : parseMemory(memoryLimit);
+    }
+
+    private static Integer parseInteger(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+
+        if (value instanceof String) {
+            try {
+                return Integer.valueOf(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    private static long parseMemory(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+
+        try {
+            if (normalized.endsWith("g")) {
+                return Long.parseLong(normalized.substring(0, normalized.length() - 1)) * 1024 * 1024 * 1024;
+            } else if (normalized.endsWith("m")) {
+                return Long.parseLong(normalized.substring(0, normalized.length() - 1)) * 1024 * 1024;
+            } else if (normalized.endsWith("k")) {
+                return Long.parseLong(normalized.substring(0, normalized.length() - 1)) * 1024;
+            } else {
+                return Long.parseLong(normalized);
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private List<String> readLines(String file) {
+        Path path = this.cgroupRoot.resolve(file);
+
+        try {
+            return Files.isReadable(path) ? Files.readAllLines(path, StandardCharsets.UTF_8) : Collections.emptyList();
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.service.ServiceInfo;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+final class DataSourceReplicas {
+
+    private static final Logger LOGGER = Logger.getLogger(DataSourceReplicas.class.getName());
+
+    private static final String PRIMARY_TAG = "primary";
+
+    private static final Pattern REPLICA_NAME = Pattern.compile(".*[-_.](replica|read|ro)([-_.]?\\d+)?", Pattern.CASE_INSENSITIVE);
+
+    private static final List<String> REPLICA_TAGS = Arrays.asList("replica", "read-replica", "read-only");
+
+    private final ServiceInfo primary;
+
+    private final List<ServiceInfo> replicas;
+
+    private DataSourceReplicas(ServiceInfo primary, List<ServiceInfo> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    static DataSourceReplicas resolve(List<ServiceInfo> serviceInfos, Function<String, List<String>> tags) {
+        if (!ClassUtils.isPresent("org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource", DataSourceReplicas.class.getClassLoader())) {
+            LOGGER.warning("Skipping replica routing because spring-jdbc is not present");
+            return null;
+        }
+
+        List<ServiceInfo> primaries = new ArrayList<>();
+        List<ServiceInfo> replicas = new ArrayList<>();
+
+        for (ServiceInfo serviceInfo : serviceInfos) {
+            if (isReplica(serviceInfo.getId(), tags.apply(serviceInfo.getId()))) {
+                replicas.add(serviceInfo);
+            } else {
+                primaries.add(serviceInfo);
+            }
+        }
+
+        if (primaries.size() != 1 || replicas.isEmpty()) {
+            LOGGER.fine(String.format("Skipping replica routing because there were %d primary and %d replica services", primaries.size(), replicas.size()));
+            return null;
+        }
+
+        return new DataSourceReplicas(primaries.get(0), Collections.unmodifiableList(replicas));
+    }
+
+    ServiceInfo getPrimary() {
+        return this.primary;
+    }
+
+    List<ServiceInfo> getReplicas() {
+        return this.replicas;
+    }
+
+    private static boolean isReplica(String name, List<String> tags) {
+        for (Object tag : tags) {
+            String normalized = String.valueOf(tag).toLowerCase(Locale.ROOT);
+
+            if (PRIMARY_TAG.equals(normalized)) {
+                return false;
+            }
+
+            if (REPLICA_TAGS.contains(normalized)) {
+                return true;
+            }
+        }
+
+        return REPLICA_NAME.matcher(name).matches();
+    }
+
+}
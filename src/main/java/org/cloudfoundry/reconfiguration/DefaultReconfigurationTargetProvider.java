@@ -0,0 +1,47 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.core.Ordered;
+
+import java.util.Arrays;
+import java.util.List;
+
+final class DefaultReconfigurationTargetProvider implements ReconfigurationTargetProvider, Ordered {
+
+    private static final List<String> TARGET_CLASS_NAMES = Arrays.asList(
+        "com.datastax.driver.core.Cluster",
+        "org.springframework.data.mongodb.MongoDbFactory",
+        "org.springframework.data.redis.connection.RedisConnectionFactory",
+        "org.springframework.amqp.rabbit.connection.ConnectionFactory",
+        "javax.sql.DataSource",
+        "org.springframework.mail.javamail.JavaMailSender",
+        "io.r2dbc.spi.ConnectionFactory",
+        "org.springframework.data.redis.connection.ReactiveRedisConnectionFactory",
+        "org.springframework.data.mongodb.ReactiveMongoDatabaseFactory");
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public List<String> getTargetClassNames() {
+        return TARGET_CLASS_NAMES;
+    }
+
+}
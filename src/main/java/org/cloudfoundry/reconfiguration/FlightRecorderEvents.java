@@ -0,0 +1,89 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    static ReconfigurationEvent begin(AbstractEvent event, Class<?> connectorType) {
+        if (event.isEnabled()) {
+            event.connectorType = connectorType;
+            event.begin();
+        }
+
+        return event;
+    }
+
+    @Category({"Cloud Foundry", "Auto-Reconfiguration"})
+    abstract static class AbstractEvent extends Event implements ReconfigurationEvent {
+
+        @Label("Bean Name")
+        String beanName;
+
+        @Label("Connector Type")
+        Class<?> connectorType;
+
+        @Label("Outcome")
+        String outcome;
+
+        @Label("Service Id")
+        String serviceId;
+
+        @Override
+        public final void commit(String beanName, String serviceId, String outcome) {
+            if (shouldCommit()) {
+                this.beanName = beanName;
+                this.serviceId = serviceId;
+                this.outcome = outcome;
+                commit();
+            }
+        }
+
+    }
+
+    @Label("Cloud Creation")
+    @Name("org.cloudfoundry.reconfiguration.CloudCreation")
+    static final class CloudCreation extends AbstractEvent {
+
+    }
+
+    @Label("Cloud Services Scan")
+    @Name("org.cloudfoundry.reconfiguration.CloudServicesScan")
+    static final class CloudServicesScan extends AbstractEvent {
+
+    }
+
+    @Label("Connector Creation")
+    @Name("org.cloudfoundry.reconfiguration.ConnectorCreation")
+    static final class ConnectorCreation extends AbstractEvent {
+
+    }
+
+    @Label("Replacement Decision")
+    @Name("org.cloudfoundry.reconfiguration.ReplacementDecision")
+    static final class ReplacementDecision extends AbstractEvent {
+
+    }
+
+}
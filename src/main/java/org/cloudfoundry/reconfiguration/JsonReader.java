@@ -0,0 +1,295 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class JsonReader {
+
+    private static final int NONE = -2;
+
+    private final Reader in;
+
+    private boolean first;
+
+    private int peeked = NONE;
+
+    JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    void beginArray() throws IOException {
+        expect('[');
+        this.first = true;
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+        this.first = true;
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+        this.first = false;
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+        this.first = false;
+    }
+
+    boolean hasNext() throws IOException {
+        int c = peekToken();
+
+        if (c == ']' || c == '}' || c == -1) {
+            return false;
+        }
+
+        if (!this.first) {
+            expect(',');
+
+            c = peekToken();
+            if (c == ']' || c == '}') {
+                throw new IOException(String.format("Unexpected '%s' after ','", (char) c));
+            }
+        }
+
+        this.first = false;
+        return true;
+    }
+
+    String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    Map<String, Object> nextObject() throws IOException {
+        Map<String, Object> object = new LinkedHashMap<>();
+
+        beginObject();
+        while (hasNext()) {
+            String name = nextName();
+            object.put(name, nextValue());
+        }
+        endObject();
+
+        return object;
+    }
+
+    String nextString() throws IOException {
+        expect('"');
+
+        StringBuilder sb = new StringBuilder();
+        for (int c = read(); c != '"'; c = read()) {
+            if (c == -1) {
+                throw new IOException("Unterminated string");
+            }
+
+            sb.append(c == '\\' ? readEscape() : (char) c);
+        }
+
+        return sb.toString();
+    }
+
+    Object nextValue() throws IOException {
+        int c = peekToken();
+
+        switch (c) {
+            case '{':
+                return nextObject();
+            case '[':
+                return nextArray();
+            case '"':
+                return nextString();
+            case 't':
+                expectLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                expectLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                expectLiteral("null");
+                return null;
+            default:
+                return nextNumber();
+        }
+    }
+
+    void skipValue() throws IOException {
+        int c = peekToken();
+
+        if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                skipString();
+                expect(':');
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (c == '"') {
+            skipString();
+        } else {
+            nextValue();
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekToken();
+
+        if (c != expected) {
+            throw new IOException(String.format("Expected '%s' but found '%s'", expected, c == -1 ? "EOF" : String.valueOf((char) c)));
+        }
+
+        read();
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw new IOException(String.format("Expected '%s'", literal));
+            }
+        }
+    }
+
+    private static boolean isNumberCharacter(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private List<Object> nextArray() throws IOException {
+        List<Object> array = new ArrayList<>();
+
+        beginArray();
+        while (hasNext()) {
+            array.add(nextValue());
+        }
+        endArray();
+
+        return array;
+    }
+
+    private Number nextNumber() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (isNumberCharacter(peek())) {
+            sb.append((char) read());
+        }
+
+        String number = sb.toString();
+        if (number.isEmpty()) {
+            throw new IOException("Expected value");
+        }
+
+        try {
+            if (number.indexOf('.') != -1 || number.indexOf('e') != -1 || number.indexOf('E') != -1) {
+                return Double.valueOf(number);
+            }
+
+            BigInteger value = new BigInteger(number);
+            if (value.bitLength() < Integer.SIZE) {
+                return value.intValue();
+            } else if (value.bitLength() < Long.SIZE) {
+                return value.longValue();
+            } else {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException(String.format("Malformed number '%s'", number), e);
+        }
+    }
+
+    private int peek() throws IOException {
+        if (this.peeked == NONE) {
+            this.peeked = this.in.read();
+        }
+
+        return this.peeked;
+    }
+
+    private int peekToken() throws IOException {
+        int c = peek();
+
+        while (Character.isWhitespace(c)) {
+            read();
+            c = peek();
+        }
+
+        return c;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        this.peeked = NONE;
+        return c;
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                char[] hex = new char[4];
+                for (int i = 0; i < hex.length; i++) {
+                    hex[i] = (char) read();
+                }
+
+                try {
+                    return (char) Integer.parseInt(new String(hex), 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed unicode escape", e);
+                }
+            case -1:
+                throw new IOException("Unterminated escape");
+            default:
+                return (char) c;
+        }
+    }
+
+    private void skipString() throws IOException {
+        expect('"');
+
+        for (int c = read(); c != '"'; c = read()) {
+            if (c == -1) {
+                throw new IOException("Unterminated string");
+            } else if (c == '\\') {
+                readEscape();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import io.lettuce.core.event.DefaultEventPublisherOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import org.springframework.cloud.service.common.RedisServiceInfo;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+final class LettuceUtils {
+
+    private LettuceUtils() {
+    }
+
+    static LettuceConnectionFactory createConnectionFactory(RedisServiceInfo serviceInfo) {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(serviceInfo.getHost(), serviceInfo.getPort());
+        configuration.setPassword(RedisPassword.of(serviceInfo.getPassword()));
+
+        ClientResources clientResources = DefaultClientResources.builder()
+            .commandLatencyCollector(new LettuceCommandLatencyCollector())
+            .commandLatencyPublisherOptions(DefaultEventPublisherOptions.disabled())
+            .build();
+
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfiguration = LettuceClientConfiguration.builder()
+            .clientResources(clientResources);
+        if ("rediss".equals(serviceInfo.getScheme())) {
+            clientConfiguration.useSsl();
+        }
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration, clientConfiguration.build()) {
+
+            @Override
+            public void destroy() {
+                super.destroy();
+                clientResources.shutdown();
+            }
+
+        };
+
+        connectionFactory.afterPropertiesSet();
+        return connectionFactory;
+    }
+
+    static LettuceCommandLatencyCollector getCommandLatencyCollector(LettuceConnectionFactory connectionFactory) {
+        return connectionFactory.getClientConfiguration().getClientResources()
+            .map(ClientResources::commandLatencyCollector)
+            .filter(LettuceCommandLatencyCollector.class::isInstance)
+            .map(LettuceCommandLatencyCollector.class::cast)
+            .orElse(null);
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+final class NativeImageConfigGenerator {
+
+    private static final String CLOUD_SERVICES_INDEX = "META-INF/auto-reconfiguration/cloud-services.index";
+
+    private static final List<String> POOLED_DATA_SOURCE_CLASS_NAMES = Arrays.asList(
+        "com.zaxxer.hikari.HikariConfig",
+        "com.zaxxer.hikari.HikariDataSource",
+        "org.apache.commons.dbcp.BasicDataSource",
+        "org.apache.commons.dbcp2.BasicDataSource",
+        "org.apache.tomcat.dbcp.dbcp.BasicDataSource",
+        "org.apache.tomcat.dbcp.dbcp2.BasicDataSource",
+        "org.apache.tomcat.jdbc.pool.DataSource",
+        "org.apache.tomcat.jdbc.pool.DataSourceProxy");
+
+    private static final String SERVLET_CONTAINER_INITIALIZERS = "META-INF/services/javax.servlet.ServletContainerInitializer";
+
+    private static final String SPRING_FACTORIES = "META-INF/spring.factories";
+
+    private NativeImageConfigGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: NativeImageConfigGenerator <root> <prefix> <native-image-directory>");
+        }
+
+        Path root = Paths.get(args[0]);
+        Path directory = root.resolve(args[2]);
+        Files.createDirectories(directory);
+
+        Files.write(directory.resolve("reflect-config.json"), getReflectConfig(root).getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("resource-config.json"), getResourceConfig(args[1]).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void addClassNames(Map<String, Boolean> classes, List<String> classNames, boolean constructor) {
+        for (String className : classNames) {
+            if (!className.isEmpty()) {
+                classes.merge(className, constructor, Boolean::logicalOr);
+            }
+        }
+    }
+
+    private static List<String> getCloudServiceClassNames(Path root) throws IOException {
+        List<String> classNames = new ArrayList<>();
+
+        for (String line : readLines(root.resolve(CLOUD_SERVICES_INDEX))) {
+            classNames.add(line.trim());
+        }
+
+        return classNames;
+    }
+
+    private static List<String> getFactoryClassNames(Path root) throws IOException {
+        List<String> classNames = new ArrayList<>();
+
+        for (String line : readLines(root.resolve(SPRING_FACTORIES))) {
+            String value = line.replaceAll("#.*", "").replaceAll("^[^=]*=", "").replace("\\", "");
+
+            for (String className : value.split(",")) {
+                classNames.add(className.trim());
+            }
+        }
+
+        return classNames;
+    }
+
+    private static String getReflectConfig(Path root) throws IOException {
+        Map<String, Boolean> classes = new TreeMap<>();
+
+        for (String line : readLines(root.resolve(CreatorRegistry.INDEX))) {
+            String[] entry = line.split("\t", -1);
+
+            if (entry.length == 3) {
+                addClassNames(classes, Collections.singletonList(entry[1]), true);
+                addClassNames(classes, Collections.singletonList(entry[2]), false);
+            }
+        }
+
+        addClassNames(classes, Collections.singletonList(SharedCloudHolder.LETTUCE_CREATOR), true);
+        addClassNames(classes, new ArrayList<>(SharedCloudHolder.REACTIVE_CREATORS.values()), true);
+        addClassNames(classes, new ArrayList<>(SharedCloudHolder.REACTIVE_CREATORS.keySet()), false);
+        addClassNames(classes, getFactoryClassNames(root), true);
+        addClassNames(classes, readLines(root.resolve(SERVLET_CONTAINER_INITIALIZERS)), true);
+        addClassNames(classes, new DefaultReconfigurationTargetProvider().getTargetClassNames(), false);
+        addClassNames(classes, getCloudServiceClassNames(root), false);
+        addClassNames(classes, POOLED_DATA_SOURCE_CLASS_NAMES, false);
+
+        StringBuilder sb = new StringBuilder("[");
+        classes.forEach((className, constructor) -> {
+            sb.append(sb.length() == 1 ? "\n" : ",\n");
+            sb.append(String.format("  {\"name\": %s", quote(className)));
+
+            if (POOLED_DATA_SOURCE_CLASS_NAMES.contains(className)) {
+                sb.append(", \"allPublicConstructors\": true, \"allPublicMethods\": true");
+            } else if (constructor) {
+                sb.append(", \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]");
+            }
+
+            sb.append("}");
+        });
+
+        return sb.append("\n]\n").toString();
+    }
+
+    private static String getResourceConfig(String prefix) {
+        List<String> patterns = Arrays.asList(
+            "\\QMETA-INF/auto-reconfiguration/\\E.*",
+            "\\QMETA-INF/cloud/\\E.*",
+            String.format("\\QMETA-INF/services/%s.\\E.*", prefix),
+            "\\Q" + SPRING_FACTORIES + "\\E");
+
+        StringBuilder sb = new StringBuilder("{\n  \"resources\": {\n    \"includes\": [");
+        for (int i = 0; i < patterns.size(); i++) {
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append(String.format("      {\"pattern\": %s}", quote(patterns.get(i))));
+        }
+
+        return sb.append("\n    ]\n  }\n}\n").toString();
+    }
+
+    private static String quote(String value) {
+        return String.format("\"%s\"", value.replace("\\", "\\\\").replace("\"", "\\\""));
+    }
+
+    private static List<String> readLines(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.replaceAll("#.*", "").trim();
+
+            if (!trimmed.isEmpty()) {
+                lines.add(trimmed);
+            }
+        }
+
+        return lines;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.springframework.cloud.service.AbstractServiceConnectorCreator;
+import org.springframework.cloud.service.ServiceConnectorConfig;
+import org.springframework.cloud.service.ServiceConnectorCreationException;
+import org.springframework.cloud.service.common.RelationalServiceInfo;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.HOST;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PORT;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PROTOCOL;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+
+final class R2dbcConnectionFactoryCreator extends AbstractServiceConnectorCreator<ConnectionFactory, RelationalServiceInfo> {
+
+    private static final Map<String, String> DRIVERS = new HashMap<>();
+
+    private static final Option<String> INITIAL_SIZE = Option.valueOf("initialSize");
+
+    private static final Option<String> MAX_SIZE = Option.valueOf("maxSize");
+
+    static {
+        DRIVERS.put("mysql", "mysql");
+        DRIVERS.put("postgres", "postgresql");
+        DRIVERS.put("sqlserver", "mssql");
+    }
+
+    @Override
+    public ConnectionFactory create(RelationalServiceInfo serviceInfo, ServiceConnectorConfig serviceConnectorConfig) {
+        String driver = DRIVERS.get(serviceInfo.getScheme());
+
+        if (driver == null) {
+            throw new ServiceConnectorCreationException(String.format("No R2DBC driver known for '%s' service '%s'", serviceInfo.getScheme(), serviceInfo.getId()));
+        }
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.builder()
+            .option(HOST, serviceInfo.getHost())
+            .option(PORT, serviceInfo.getPort());
+
+        if (serviceInfo.getPath() != null) {
+            options.option(DATABASE, serviceInfo.getPath());
+        }
+
+        if (serviceInfo.getUserName() != null) {
+            options.option(USER, serviceInfo.getUserName());
+        }
+
+        if (serviceInfo.getPassword() != null) {
+            options.option(PASSWORD, serviceInfo.getPassword());
+        }
+
+        if (ClassUtils.isPresent("io.r2dbc.pool.ConnectionPool", getClass().getClassLoader())) {
+            int processors = Runtime.getRuntime().availableProcessors();
+
+            options
+                .option(DRIVER, "pool")
+                .option(PROTOCOL, driver)
+                .option(INITIAL_SIZE, String.valueOf(processors))
+                .option(MAX_SIZE, String.valueOf(processors * 2));
+        } else {
+            options.option(DRIVER, driver);
+        }
+
+        return ConnectionFactories.get(options.build());
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import com.mongodb.ConnectionString;
+import org.springframework.cloud.service.AbstractServiceConnectorCreator;
+import org.springframework.cloud.service.ServiceConnectorConfig;
+import org.springframework.cloud.service.ServiceConnectorCreationException;
+import org.springframework.cloud.service.common.MongoServiceInfo;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+
+final class ReactiveMongoDatabaseFactoryCreator extends AbstractServiceConnectorCreator<ReactiveMongoDatabaseFactory, MongoServiceInfo> {
+
+    @Override
+    public ReactiveMongoDatabaseFactory create(MongoServiceInfo serviceInfo, ServiceConnectorConfig serviceConnectorConfig) {
+        ConnectionString connectionString = new ConnectionString(serviceInfo.getUri());
+
+        if (connectionString.getDatabase() == null) {
+            throw new ServiceConnectorCreationException(String.format("No database specified for service '%s'", serviceInfo.getId()));
+        }
+
+        return new SimpleReactiveMongoDatabaseFactory(connectionString);
+    }
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.service.AbstractServiceConnectorCreator;
+import org.springframework.cloud.service.ServiceConnectorConfig;
+import org.springframework.cloud.service.common.RedisServiceInfo;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+final class ReactiveRedisConnectionFactoryCreator extends AbstractServiceConnectorCreator<ReactiveRedisConnectionFactory, RedisServiceInfo> {
+
+    @Override
+    public ReactiveRedisConnectionFactory create(RedisServiceInfo serviceInfo, ServiceConnectorConfig serviceConnectorConfig) {
+        return LettuceUtils.createConnectionFactory(serviceInfo);
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.util.ClassUtils;
+
+final class ReconfigurationEvents {
+
+    private static final boolean FLIGHT_RECORDER_PRESENT = ClassUtils.isPresent("jdk.jfr.Event", ReconfigurationEvents.class.getClassLoader());
+
+    private static final ReconfigurationEvent NOOP = (beanName, serviceId, outcome) -> {
+    };
+
+    private ReconfigurationEvents() {
+    }
+
+    static ReconfigurationEvent beginCloudCreation() {
+        return FLIGHT_RECORDER_PRESENT ? FlightRecorderEvents.begin(new FlightRecorderEvents.CloudCreation(), null) : NOOP;
+    }
+
+    static ReconfigurationEvent beginCloudServicesScan() {
+        return FLIGHT_RECORDER_PRESENT ? FlightRecorderEvents.begin(new FlightRecorderEvents.CloudServicesScan(), null) : NOOP;
+    }
+
+    static ReconfigurationEvent beginConnectorCreation(Class<?> connectorType) {
+        return FLIGHT_RECORDER_PRESENT ? FlightRecorderEvents.begin(new FlightRecorderEvents.ConnectorCreation(), connectorType) : NOOP;
+    }
+
+    static ReconfigurationEvent beginReplacementDecision(Class<?> connectorType) {
+        return FLIGHT_RECORDER_PRESENT ? FlightRecorderEvents.begin(new FlightRecorderEvents.ReplacementDecision(), connectorType) : NOOP;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.service.ServiceInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+final class ReconfigurationPlan {
+
+    private static final Logger LOGGER = Logger.getLogger(ReconfigurationPlan.class.getName());
+
+    private final List<BeanReplacement> replacements = new ArrayList<>();
+
+    private final Map<String, String> skipReasons = new LinkedHashMap<>();
+
+    void apply(DefaultListableBeanFactory beanFactory, BeanTypeIndex beanTypeIndex, List<Object> cloudServices) {
+        if (cloudServices.size() != this.replacements.size()) {
+            throw new IllegalArgumentException(String.format("Expected %d cloud services but got %d", this.replacements.size(), cloudServices.size()));
+        }
+
+        validate(beanFactory);
+
+        for (BeanReplacement replacement : this.replacements) {
+            beanFactory.removeBeanDefinition(replacement.getBeanName());
+        }
+
+        for (int i = 0; i < this.replacements.size(); i++) {
+            BeanReplacement replacement = this.replacements.get(i);
+            String beanName = replacement.getBeanName();
+            String cloudServiceBeanName = replacement.getCloudServiceBeanName();
+
+            beanFactory.registerSingleton(cloudServiceBeanName, cloudServices.get(i));
+            beanFactory.registerAlias(cloudServiceBeanName, beanName);
+            beanTypeIndex.replace(beanName, cloudServiceBeanName, cloudServices.get(i));
+
+            LOGGER.info(String.format("'%s' bean of type with '%s' reconfigured with '%s' bean", beanName, replacement.getType().getName(),
+                cloudServiceBeanName));
+        }
+    }
+
+    List<BeanReplacement> getReplacements() {
+        return Collections.unmodifiableList(this.replacements);
+    }
+
+    void replace(BeanReplacement replacement) {
+        this.replacements.add(replacement);
+    }
+
+    void skip(Class<?> klass, String reason) {
+        this.skipReasons.put(klass.getName(), reason);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Reconfiguration plan:");
+
+        for (BeanReplacement replacement : this.replacements) {
+            sb.append(String.format("%n  replace %s", replacement));
+
+            if (!replacement.getReplicaServiceInfos().isEmpty()) {
+                sb.append(String.format(" with replicas %s",
+                    replacement.getReplicaServiceInfos().stream().map(ServiceInfo::getId).collect(Collectors.toList())));
+            }
+        }
+
+        this.skipReasons.forEach((type, reason) -> sb.append(String.format("%n  skip %s because %s", type, reason)));
+
+        return sb.toString();
+    }
+
+    private void validate(DefaultListableBeanFactory beanFactory) {
+        Set<String> beanNames = this.replacements.stream().map(BeanReplacement::getBeanName).collect(Collectors.toSet());
+        Set<String> cloudServiceBeanNames = new HashSet<>();
+
+        for (BeanReplacement replacement : this.replacements) {
+            String cloudServiceBeanName = replacement.getCloudServiceBeanName();
+
+            if (!beanFactory.containsBeanDefinition(replacement.getBeanName())) {
+                throw new IllegalStateException(String.format("'%s' has no bean definition", replacement.getBeanName()));
+            }
+
+            if (!cloudServiceBeanNames.add(cloudServiceBeanName)) {
+                throw new IllegalStateException(String.format("'%s' is planned to replace more than one bean", cloudServiceBeanName));
+            }
+
+            if (beanFactory.containsLocalBean(cloudServiceBeanName) && !beanNames.contains(cloudServiceBeanName)) {
+                throw new IllegalStateException(String.format("'%s' is already registered", cloudServiceBeanName));
+            }
+        }
+    }
+
+}
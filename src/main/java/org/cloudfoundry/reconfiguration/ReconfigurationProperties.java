@@ -0,0 +1,95 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.core.env.PropertyResolver;
+
+final class ReconfigurationProperties {
+
+    private static final String PREFIX = "auto-reconfiguration.";
+
+    private final PropertyResolver propertyResolver;
+
+    ReconfigurationProperties(PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    Integer getDataSourceInstances() {
+        return this.propertyResolver.getProperty(PREFIX + "datasource.instances", Integer.class);
+    }
+
+    boolean isCrac() {
+        return getBoolean("crac");
+    }
+
+    boolean isDataSourceAutoSize() {
+        return getBoolean("datasource.auto-size");
+    }
+
+    boolean isDataSourceReplicas() {
+        return getBoolean("datasource.replicas");
+    }
+
+    boolean isLazy() {
+        return getBoolean("lazy");
+    }
+
+    boolean isMetrics() {
+        return this.propertyResolver.getProperty(PREFIX + "metrics", Boolean.class, true);
+    }
+
+    boolean isParallel() {
+        return getBoolean("parallel");
+    }
+
+    boolean isReportPlan() {
+        return getBoolean("report-plan");
+    }
+
+    boolean isReportTimings() {
+        return getBoolean("report-timings");
+    }
+
+    long getHotSwapDrainTimeout() {
+        return this.propertyResolver.getProperty(PREFIX + "hot-swap.drain-timeout", Long.class, 30000L);
+    }
+
+    String getHotSwapFile() {
+        return this.propertyResolver.getProperty(PREFIX + "hot-swap.file");
+    }
+
+    long getHotSwapInterval() {
+        return this.propertyResolver.getProperty(PREFIX + "hot-swap.interval", Long.class, 5000L);
+    }
+
+    int getWarmUpConnections() {
+        return this.propertyResolver.getProperty(PREFIX + "warm-up.connections", Integer.class, 0);
+    }
+
+    long getWarmUpTimeout() {
+        return this.propertyResolver.getProperty(PREFIX + "warm-up.timeout", Long.class, 30000L);
+    }
+
+    boolean isWarmUpWait() {
+        return getBoolean("warm-up.wait");
+    }
+
+    private boolean getBoolean(String name) {
+        return this.propertyResolver.getProperty(PREFIX + name, Boolean.class, false);
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+final class ReconfigurationTargets {
+
+    private static final Logger LOGGER = Logger.getLogger(ReconfigurationTargets.class.getName());
+
+    private static final ClassLoaderCache<List<String>> TARGET_CLASS_NAMES = new ClassLoaderCache<>();
+
+    private ReconfigurationTargets() {
+    }
+
+    static List<String> getServiceConnectorCreatorClassNames(ClassLoader classLoader) {
+        return resolveServiceConnectorCreatorClassNames(getProviders(classLoader));
+    }
+
+    static List<String> getTargetClassNames(ClassLoader classLoader) {
+        return TARGET_CLASS_NAMES.get(classLoader, key -> resolveTargetClassNames(getProviders(key), key));
+    }
+
+    static List<Class<?>> getTargetClasses(ClassLoader classLoader) {
+        return resolveTargetClasses(getTargetClassNames(classLoader), classLoader);
+    }
+
+    static List<String> resolveServiceConnectorCreatorClassNames(List<ReconfigurationTargetProvider> providers) {
+        Set<String> classNames = new LinkedHashSet<>();
+        providers.forEach(provider -> classNames.addAll(provider.getServiceConnectorCreatorClassNames()));
+        return Collections.unmodifiableList(new ArrayList<>(classNames));
+    }
+
+    static List<String> resolveTargetClassNames(List<ReconfigurationTargetProvider> providers, ClassLoader classLoader) {
+        Set<String> classNames = new LinkedHashSet<>();
+        providers.forEach(provider -> classNames.addAll(provider.getTargetClassNames()));
+
+        List<String> presentClassNames = new ArrayList<>();
+        for (String className : classNames) {
+            if (ClassPathUtils.isPresent(className, classLoader)) {
+                presentClassNames.add(className);
+            } else {
+                LOGGER.fine(String.format("Skipping reconfiguration target '%s' because it is not on the classpath", className));
+            }
+        }
+
+        return Collections.unmodifiableList(presentClassNames);
+    }
+
+    static List<Class<?>> resolveTargetClasses(List<String> classNames, ClassLoader classLoader) {
+        List<Class<?>> targetClasses = new ArrayList<>();
+
+        for (String className : classNames) {
+            try {
+                targetClasses.add(ClassUtils.forName(className, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOGGER.fine(String.format("Skipping reconfiguration target '%s' because it could not be loaded: %s", className, e));
+            }
+        }
+
+        return targetClasses;
+    }
+
+    private static List<ReconfigurationTargetProvider> getProviders(ClassLoader classLoader) {
+        return SpringFactoriesLoader.loadFactories(ReconfigurationTargetProvider.class, classLoader);
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public final class ReconfigurationTimings {
+
+    private static final ReconfigurationTimings INSTANCE = new ReconfigurationTimings();
+
+    private final List<Phase> phases = new CopyOnWriteArrayList<>();
+
+    private volatile ReconfigurationTimings lastReport;
+
+    ReconfigurationTimings() {
+    }
+
+    private ReconfigurationTimings(List<Phase> phases) {
+        this.phases.addAll(phases);
+    }
+
+    public static ReconfigurationTimings getInstance() {
+        return INSTANCE;
+    }
+
+    ReconfigurationTimings drain() {
+        List<Phase> drained = new ArrayList<>(this.phases);
+        this.phases.removeAll(drained);
+        return new ReconfigurationTimings(drained);
+    }
+
+    public ReconfigurationTimings getLastReport() {
+        return this.lastReport;
+    }
+
+    public List<Phase> getPhases() {
+        return Collections.unmodifiableList(new ArrayList<>(this.phases));
+    }
+
+    void setLastReport(ReconfigurationTimings lastReport) {
+        this.lastReport = lastReport;
+    }
+
+    void time(String name, String type, Runnable runnable) {
+        time(name, type, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    <T> T time(String name, String type, Supplier<T> supplier) {
+        long start = System.nanoTime();
+
+        try {
+            return supplier.get();
+        } finally {
+            this.phases.add(new Phase(name, type, System.nanoTime() - start));
+        }
+    }
+
+    String toJson() {
+        return this.phases.stream()
+            .map(Phase::toJson)
+            .collect(Collectors.joining(",", "{\"phases\":[", "]}"));
+    }
+
+    public static final class Phase {
+
+        private final String name;
+
+        private final String type;
+
+        private final long durationNanos;
+
+        Phase(String name, String type, long durationNanos) {
+            this.name = name;
+            this.type = type;
+            this.durationNanos = durationNanos;
+        }
+
+        public long getDuration(TimeUnit unit) {
+            return unit.convert(this.durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public String getType() {
+            return this.type;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Phase{name='%s', type='%s', durationNanos=%d}", this.name, this.type, this.durationNanos);
+        }
+
+        private String toJson() {
+            String type = this.type == null ? "" : String.format("\"type\":\"%s\",", this.type);
+            return String.format(Locale.ROOT, "{\"name\":\"%s\",%s\"durationMillis\":%.3f}", this.name, type, this.durationNanos / 1_000_000.0);
+        }
+
+    }
+
+}
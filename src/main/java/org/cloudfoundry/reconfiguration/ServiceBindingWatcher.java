@@ -0,0 +1,302 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.Cloud;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static org.cloudfoundry.reconfiguration.CloudServiceUtils.close;
+import static org.cloudfoundry.reconfiguration.CloudServiceUtils.isCloseable;
+
+final class ServiceBindingWatcher implements DisposableBean {
+
+    private static final List<String> HOT_SWAP_CLASS_NAMES = Arrays.asList(
+        "javax.sql.DataSource",
+        "org.springframework.data.redis.connection.RedisConnectionFactory",
+        "org.springframework.amqp.rabbit.connection.ConnectionFactory");
+
+    private static final Logger LOGGER = Logger.getLogger(ServiceBindingWatcher.class.getName());
+
+    private final List<Binding> bindings = new CopyOnWriteArrayList<>();
+
+    private final long drainTimeout;
+
+    private final Function<String, String> environment;
+
+    private final ScheduledExecutorService executor;
+
+    private final long interval;
+
+    private final Path path;
+
+    private final Queue<Runnable> pendingCloses = new ConcurrentLinkedQueue<>();
+
+    private final List<String> unsupportedServiceIds = new CopyOnWriteArrayList<>();
+
+    private volatile String vcapServices;
+
+    ServiceBindingWatcher(Path path, long interval, long drainTimeout, Function<String, String> environment) {
+        this.path = path;
+        this.interval = interval;
+        this.drainTimeout = drainTimeout;
+        this.environment = environment;
+        this.vcapServices = environment.apply("VCAP_SERVICES");
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auto-reconfiguration-binding-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void checkpoint() {
+        for (Binding binding : this.bindings) {
+            close(binding.target.getTarget(), binding.serviceId);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+
+        for (Runnable pendingClose = this.pendingCloses.poll(); pendingClose != null; pendingClose = this.pendingCloses.poll()) {
+            pendingClose.run();
+        }
+    }
+
+    List<String> getUncloseableServiceIds() {
+        return this.bindings.stream()
+            .filter(binding -> !isCloseable(binding.target.getTarget()))
+            .map(binding -> binding.serviceId)
+            .collect(Collectors.toList());
+    }
+
+    List<String> getUnsupportedServiceIds() {
+        return this.unsupportedServiceIds;
+    }
+
+    boolean hasBindings() {
+        return !this.bindings.isEmpty();
+    }
+
+    void poll() {
+        String vcapServices;
+
+        try {
+            vcapServices = new String(Files.readAllBytes(this.path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.fine(String.format("Unable to read service bindings from '%s': %s", this.path, e));
+            return;
+        }
+
+        if (vcapServices.equals(this.vcapServices)) {
+            return;
+        }
+
+        Cloud cloud = null;
+        boolean rebound = true;
+        for (Binding binding : this.bindings) {
+            Map<String, Object> credentials = getCredentials(vcapServices, binding.serviceId);
+
+            if (credentials == null || credentials.equals(binding.credentials)) {
+                continue;
+            }
+
+            if (cloud == null) {
+                cloud = SharedCloudHolder.create(name -> "VCAP_SERVICES".equals(name) ? vcapServices : this.environment.apply(name));
+            }
+
+            if (cloud == null) {
+                LOGGER.warning(String.format("Unable to rebind services because '%s' could not be parsed", this.path));
+                return;
+            }
+
+            rebound &= rebind(binding, cloud, credentials);
+        }
+
+        if (rebound) {
+            this.vcapServices = vcapServices;
+        }
+    }
+
+    void restore(Cloud cloud, String vcapServices) {
+        this.vcapServices = vcapServices;
+
+        for (Binding binding : this.bindings) {
+            Object cloudService;
+
+            try {
+                cloudService = binding.connectorCreator.apply(cloud);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, String.format("Unable to rebuild '%s' after restore", binding.serviceId), e);
+                continue;
+            }
+
+            binding.target.swap(cloudService);
+            binding.credentials = getCredentials(vcapServices, binding.serviceId);
+            LOGGER.info(String.format("Rebuilt '%s' after restore", binding.serviceId));
+        }
+    }
+
+    void start() {
+        if (this.path == null) {
+            return;
+        }
+
+        this.executor.scheduleWithFixedDelay(this::poll, this.interval, this.interval, TimeUnit.MILLISECONDS);
+        LOGGER.info(String.format("Watching '%s' for credential changes to %s", this.path,
+            this.bindings.stream().map(binding -> binding.serviceId).collect(Collectors.toList())));
+    }
+
+    Object watch(BeanReplacement replacement, Object cloudService, Function<Cloud, Object> connectorCreator) {
+        Class<?> klass = replacement.getType();
+
+        if (!HOT_SWAP_CLASS_NAMES.contains(klass.getName()) || !replacement.getReplicaServiceInfos().isEmpty()) {
+            LOGGER.fine(String.format("Skipping hot swapping of '%s' because it is not supported", replacement.getCloudServiceBeanName()));
+            this.unsupportedServiceIds.add(replacement.getServiceId());
+            return cloudService;
+        }
+
+        String serviceId = replacement.getServiceId();
+        Target target = new Target(klass, cloudService);
+        this.bindings.add(new Binding(serviceId, getCredentials(this.vcapServices, serviceId), target, connectorCreator));
+
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setInterfaces(ClassUtils.getAllInterfacesForClass(klass));
+        proxyFactory.setTargetSource(target);
+
+        return proxyFactory.getProxy(ServiceBindingWatcher.class.getClassLoader());
+    }
+
+    private static Map<String, Object> getCredentials(String vcapServices, String serviceId) {
+        if (vcapServices == null) {
+            return null;
+        }
+
+        try {
+            return VcapServicesUtils.getCredentials(new StringReader(vcapServices), serviceId);
+        } catch (IOException e) {
+            LOGGER.fine(String.format("Unable to parse service bindings: %s", e.getMessage()));
+            return null;
+        }
+    }
+
+    private boolean rebind(Binding binding, Cloud cloud, Map<String, Object> credentials) {
+        Object cloudService;
+
+        try {
+            cloudService = binding.connectorCreator.apply(cloud);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, String.format("Unable to rebind '%s', keeping previous connector", binding.serviceId), e);
+            return false;
+        }
+
+        Object previous = binding.target.swap(cloudService);
+        binding.credentials = credentials;
+        LOGGER.info(String.format("Rebound '%s' with changed credentials, draining previous connector for %d ms", binding.serviceId, this.drainTimeout));
+
+        Runnable pendingClose = () -> close(previous, binding.serviceId);
+        this.pendingCloses.add(pendingClose);
+        this.executor.schedule(() -> {
+            if (this.pendingCloses.remove(pendingClose)) {
+                pendingClose.run();
+            }
+        }, this.drainTimeout, TimeUnit.MILLISECONDS);
+
+        return true;
+    }
+
+    private static final class Binding {
+
+        private final Function<Cloud, Object> connectorCreator;
+
+        private final String serviceId;
+
+        private final Target target;
+
+        private volatile Map<String, Object> credentials;
+
+        private Binding(String serviceId, Map<String, Object> credentials, Target target, Function<Cloud, Object> connectorCreator) {
+            this.serviceId = serviceId;
+            this.credentials = credentials;
+            this.target = target;
+            this.connectorCreator = connectorCreator;
+        }
+
+    }
+
+    private static final class Target implements TargetSource {
+
+        private final Class<?> targetClass;
+
+        private volatile Object target;
+
+        private Target(Class<?> targetClass, Object target) {
+            this.targetClass = targetClass;
+            this.target = target;
+        }
+
+        @Override
+        public Object getTarget() {
+            return this.target;
+        }
+
+        @Override
+        public Class<?> getTargetClass() {
+            return this.targetClass;
+        }
+
+        @Override
+        public boolean isStatic() {
+            return false;
+        }
+
+        @Override
+        public void releaseTarget(Object target) {
+        }
+
+        private Object swap(Object target) {
+            Object previous = this.target;
+            this.target = target;
+            return previous;
+        }
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.Cloud;
+import org.springframework.cloud.service.ServiceInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+final class ServiceInfoIndex {
+
+    private final Cloud cloud;
+
+    private final ConcurrentMap<Class<?>, List<ServiceInfo>> serviceInfos = new ConcurrentHashMap<>();
+
+    ServiceInfoIndex(Cloud cloud) {
+        this.cloud = cloud;
+    }
+
+    List<ServiceInfo> getServiceInfos(Class<?> serviceConnectorType) {
+        return this.serviceInfos.computeIfAbsent(serviceConnectorType,
+            klass -> Collections.unmodifiableList(new ArrayList<>(this.cloud.getServiceInfos(klass))));
+    }
+
+    List<String> getTags(String serviceId) {
+        return this.cloud instanceof TaggedCloud ? ((TaggedCloud) this.cloud).getTags(serviceId) : Collections.emptyList();
+    }
+
+}
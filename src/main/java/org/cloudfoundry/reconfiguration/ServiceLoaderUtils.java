@@ -0,0 +1,84 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Logger;
+
+final class ServiceLoaderUtils {
+
+    private static final Logger LOGGER = Logger.getLogger(ServiceLoaderUtils.class.getName());
+
+    private ServiceLoaderUtils() {
+    }
+
+    static List<String> getServiceClassNames(Class<?> serviceType, ClassLoader classLoader) {
+        List<String> classNames = new ArrayList<>();
+
+        try {
+            Enumeration<URL> resources = classLoader.getResources("META-INF/services/" + serviceType.getName());
+
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        int comment = line.indexOf('#');
+                        String className = (comment == -1 ? line : line.substring(0, comment)).trim();
+
+                        if (!className.isEmpty() && !classNames.contains(className)) {
+                            classNames.add(className);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.fine(String.format("Unable to read '%s' services: %s", serviceType.getName(), e.getMessage()));
+        }
+
+        return classNames;
+    }
+
+    static <T> List<T> loadServices(Class<T> serviceType) {
+        List<T> services = new ArrayList<>();
+        Iterator<T> iterator = ServiceLoader.load(serviceType).iterator();
+
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    return services;
+                }
+
+                services.add(iterator.next());
+            } catch (ServiceConfigurationError | LinkageError e) {
+                LOGGER.fine(String.format("Skipping '%s' service: %s", serviceType.getName(), e.getMessage()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+final class ServiceSnapshot {
+
+    static final String DIRECTORY = "AUTO_RECONFIGURATION_SNAPSHOT_DIRECTORY";
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final Logger LOGGER = Logger.getLogger(ServiceSnapshot.class.getName());
+
+    private static final String SUFFIX = ".snapshot";
+
+    private static final int TAG_LENGTH = 128;
+
+    private static final byte VERSION = 1;
+
+    private final Path directory;
+
+    private final Path file;
+
+    private final SecretKeySpec key;
+
+    private final String owner;
+
+    private ServiceSnapshot(Path directory, String owner, String name, byte[] key) {
+        this.directory = directory;
+        this.file = directory.resolve(String.format("%s-%s%s", owner, name, SUFFIX));
+        this.key = new SecretKeySpec(key, "AES");
+        this.owner = owner;
+    }
+
+    static ServiceSnapshot create(Function<String, String> environment, List<?> serviceInfoCreators) {
+        String directory = environment.apply(DIRECTORY);
+
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+
+        String vcapApplication = environment.apply("VCAP_APPLICATION");
+        StringBuilder inputs = new StringBuilder()
+            .append(vcapApplication).append('\0')
+            .append(environment.apply("VCAP_SERVICES")).append('\0');
+        serviceInfoCreators.forEach(serviceInfoCreator -> inputs.append(serviceInfoCreator.getClass().getName()).append('\0'));
+
+        try {
+            String owner = toHex(Arrays.copyOf(digest("owner", getOwner(vcapApplication)), 8));
+            String name = toHex(digest("name", inputs));
+            byte[] key = Arrays.copyOf(digest("key", inputs), 16);
+            return new ServiceSnapshot(Paths.get(directory), owner, name, key);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            LOGGER.warning(String.format("Skipping service snapshot because %s", e.getMessage()));
+            return null;
+        }
+    }
+
+    List<Binding> load() {
+        if (!Files.exists(this.file)) {
+            return null;
+        }
+
+        try {
+            byte[] contents = Files.readAllBytes(this.file);
+
+            if (contents.length < 1 + IV_LENGTH || contents[0] != VERSION) {
+                throw new IOException("Unsupported snapshot format");
+            }
+
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, contents, 1, IV_LENGTH));
+            cipher.updateAAD(contents, 0, 1);
+            byte[] plaintext = cipher.doFinal(contents, 1 + IV_LENGTH, contents.length - 1 - IV_LENGTH);
+
+            List<Binding> bindings = readBindings(new DataInputStream(new ByteArrayInputStream(plaintext)));
+            LOGGER.fine(String.format("Loaded %d service bindings from %s", bindings.size(), this.file));
+            return bindings;
+        } catch (IOException | GeneralSecurityException e) {
+            LOGGER.warning(String.format("Dropping service snapshot %s because it could not be read: %s", this.file, e.getMessage()));
+            delete(this.file);
+            return null;
+        }
+    }
+
+    void save(List<Binding> bindings) {
+        try {
+            ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+            writeBindings(new DataOutputStream(plaintext), bindings);
+
+            byte[] iv = new byte[IV_LENGTH];
+            new SecureRandom().nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, this.key, new GCMParameterSpec(TAG_LENGTH, iv));
+            cipher.updateAAD(new byte[]{VERSION});
+            byte[] ciphertext = cipher.doFinal(plaintext.toByteArray());
+
+            Files.createDirectories(this.directory);
+            deleteStaleSnapshots();
+
+            Path temporary = Files.createTempFile(this.directory, "snapshot", ".tmp");
+            ByteArrayOutputStream contents = new ByteArrayOutputStream(1 + IV_LENGTH + ciphertext.length);
+            contents.write(VERSION);
+            contents.write(iv);
+            contents.write(ciphertext);
+            Files.write(temporary, contents.toByteArray());
+            Files.move(temporary, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            LOGGER.fine(String.format("Saved %d service bindings to %s", bindings.size(), this.file));
+        } catch (IOException | GeneralSecurityException e) {
+            LOGGER.warning(String.format("Unable to save service snapshot %s: %s", this.file, e.getMessage()));
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warning(String.format("Unable to delete service snapshot %s", file));
+        }
+    }
+
+    private void deleteStaleSnapshots() throws IOException {
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(this.directory, this.owner + "-*" + SUFFIX)) {
+            snapshots.forEach(snapshot -> {
+                if (!snapshot.equals(this.file)) {
+                    delete(snapshot);
+                }
+            });
+        }
+    }
+
+    private static byte[] digest(String purpose, CharSequence inputs) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(purpose.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(inputs.toString().getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    private static String getOwner(String vcapApplication) throws IOException {
+        Map<String, Object> application = VcapApplicationUtils.getApplication(vcapApplication);
+
+        if (application.get("application_id") != null) {
+            return application.get("application_id").toString();
+        } else if (application.get("application_name") != null) {
+            return application.get("application_name").toString();
+        } else {
+            return String.valueOf(vcapApplication);
+        }
+    }
+
+    private static List<Binding> readBindings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Binding> bindings = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            int serviceInfoCreator = in.readInt();
+            bindings.add(new Binding(serviceInfoCreator, readObject(in)));
+        }
+
+        return bindings;
+    }
+
+    private static List<Object> readList(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Object> list = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            list.add(readValue(in));
+        }
+
+        return list;
+    }
+
+    private static Map<String, Object> readObject(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, Object> object = new LinkedHashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            object.put(readString(in), readValue(in));
+        }
+
+        return object;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+
+        switch (type) {
+            case 'N':
+                return null;
+            case 'Z':
+                return in.readBoolean();
+            case 'I':
+                return in.readInt();
+            case 'J':
+                return in.readLong();
+            case 'D':
+                return in.readDouble();
+            case 'G':
+                return new BigInteger(readString(in));
+            case 'S':
+                return readString(in);
+            case 'A':
+                return readList(in);
+            case 'O':
+                return readObject(in);
+            default:
+                throw new IOException(String.format("Unknown value type '%s'", (char) type));
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+
+        return sb.toString();
+    }
+
+    private static void writeBindings(DataOutputStream out, List<Binding> bindings) throws IOException {
+        out.writeInt(bindings.size());
+
+        for (Binding binding : bindings) {
+            out.writeInt(binding.serviceInfoCreator);
+            writeObject(out, binding.serviceData);
+        }
+    }
+
+    private static void writeObject(DataOutputStream out, Map<?, ?> object) throws IOException {
+        out.writeInt(object.size());
+
+        for (Map.Entry<?, ?> entry : object.entrySet()) {
+            writeString(out, entry.getKey().toString());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte('N');
+        } else if (value instanceof Boolean) {
+            out.writeByte('Z');
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte('I');
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte('J');
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte('D');
+            out.writeDouble((Double) value);
+        } else if (value instanceof BigInteger) {
+            out.writeByte('G');
+            writeString(out, value.toString());
+        } else if (value instanceof String) {
+            out.writeByte('S');
+            writeString(out, (String) value);
+        } else if (value instanceof List) {
+            out.writeByte('A');
+            List<?> list = (List<?>) value;
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map) {
+            out.writeByte('O');
+            writeObject(out, (Map<?, ?>) value);
+        } else {
+            throw new IOException(String.format("Unsupported value type %s", value.getClass().getName()));
+        }
+    }
+
+    static final class Binding {
+
+        private final int serviceInfoCreator;
+
+        private final Map<String, Object> serviceData;
+
+        Binding(int serviceInfoCreator, Map<String, Object> serviceData) {
+            this.serviceInfoCreator = serviceInfoCreator;
+            this.serviceData = serviceData;
+        }
+
+        Map<String, Object> getServiceData() {
+            return this.serviceData;
+        }
+
+        int getServiceInfoCreator() {
+            return this.serviceInfoCreator;
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import static org.cloudfoundry.reconfiguration.VcapServicesUtils.forEachService;
+
+final class SharedBindings {
+
+    static final String ENABLED = "AUTO_RECONFIGURATION_SHARED_BINDINGS";
+
+    static final String KEY = "org.cloudfoundry.reconfiguration.shared.vcap_services";
+
+    private static final Logger LOGGER = Logger.getLogger(SharedBindings.class.getName());
+
+    private SharedBindings() {
+    }
+
+    static List<Map<String, Object>> getServices(String vcapServices) throws IOException {
+        byte[] digest = digest(vcapServices);
+        Properties properties = System.getProperties();
+
+        List<Map<String, Object>> existing = getShared(properties.get(KEY), digest);
+        if (existing != null) {
+            LOGGER.fine("Reusing service bindings parsed by another application in this JVM");
+            return existing;
+        }
+
+        List<Map<String, Object>> services = new ArrayList<>();
+        forEachService(new StringReader(vcapServices), serviceData -> services.add(immutableMap(serviceData)));
+        List<Map<String, Object>> shared = Collections.unmodifiableList(services);
+
+        synchronized (properties) {
+            existing = getShared(properties.get(KEY), digest);
+            if (existing != null) {
+                return existing;
+            }
+
+            properties.put(KEY, new AbstractMap.SimpleImmutableEntry<>(digest, shared));
+        }
+
+        LOGGER.fine(String.format("Shared %d service bindings with other applications in this JVM", shared.size()));
+        return shared;
+    }
+
+    static boolean isEnabled(Function<String, String> environment) {
+        return Boolean.parseBoolean(environment.apply(ENABLED));
+    }
+
+    private static byte[] digest(String vcapServices) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(vcapServices.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getShared(Object candidate, byte[] digest) {
+        if (candidate instanceof Map.Entry && ((Map.Entry<?, ?>) candidate).getKey() instanceof byte[]
+            && Arrays.equals(digest, (byte[]) ((Map.Entry<?, ?>) candidate).getKey())) {
+            return (List<Map<String, Object>>) ((Map.Entry<?, ?>) candidate).getValue();
+        }
+
+        return null;
+    }
+
+    private static Object immutable(Object value) {
+        if (value instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = (Map<String, Object>) value;
+            return immutableMap(map);
+        } else if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            ((List<?>) value).forEach(element -> list.add(immutable(element)));
+            return Collections.unmodifiableList(list);
+        } else {
+            return value;
+        }
+    }
+
+    private static Map<String, Object> immutableMap(Map<String, Object> map) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        map.forEach((key, value) -> copy.put(key, immutable(value)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+}
@@ -17,27 +17,130 @@
 package org.cloudfoundry.reconfiguration;
 
 import org.springframework.cloud.Cloud;
+import org.springframework.cloud.CloudConnector;
 import org.springframework.cloud.CloudException;
-import org.springframework.cloud.CloudFactory;
+import org.springframework.cloud.cloudfoundry.CloudFoundryConnector;
+import org.springframework.cloud.service.ServiceConnectorCreator;
+import org.springframework.cloud.service.ServiceInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import static org.cloudfoundry.reconfiguration.CreatorRegistry.loadCreator;
+import static org.cloudfoundry.reconfiguration.CreatorRegistry.loadCreators;
+import static org.cloudfoundry.reconfiguration.ReconfigurationTargets.getServiceConnectorCreatorClassNames;
+import static org.cloudfoundry.reconfiguration.ServiceLoaderUtils.getServiceClassNames;
 
 final class SharedCloudHolder extends AbstractCloudHolder {
 
-    private static CloudHolder CLOUD_HOLDER = new SharedCloudHolder();
+    static final String LETTUCE_CREATOR = "org.cloudfoundry.reconfiguration.LettuceRedisConnectionFactoryCreator";
+
+    static final Map<String, String> REACTIVE_CREATORS = new LinkedHashMap<>();
+
+    private static final String JEDIS = "redis.clients.jedis.Jedis";
+
+    private static final String LETTUCE = "io.lettuce.core.RedisClient";
+
+    private static final String LETTUCE_CONNECTION_FACTORY = "org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory";
+
+    private static final Logger LOGGER = Logger.getLogger(SharedCloudHolder.class.getName());
+
+    private static volatile CloudHolder CLOUD_HOLDER = new SharedCloudHolder();
+
+    static {
+        REACTIVE_CREATORS.put("io.r2dbc.spi.ConnectionFactory", "org.cloudfoundry.reconfiguration.R2dbcConnectionFactoryCreator");
+        REACTIVE_CREATORS.put("org.springframework.data.mongodb.ReactiveMongoDatabaseFactory",
+            "org.cloudfoundry.reconfiguration.ReactiveMongoDatabaseFactoryCreator");
+        REACTIVE_CREATORS.put("org.springframework.data.redis.connection.ReactiveRedisConnectionFactory",
+            "org.cloudfoundry.reconfiguration.ReactiveRedisConnectionFactoryCreator");
+    }
 
     private SharedCloudHolder() {
-        super(create());
+        super(() -> ReconfigurationTimings.getInstance().time("cloud-detection", null, () -> create(System::getenv)));
     }
 
     static CloudHolder getInstance() {
         return CLOUD_HOLDER;
     }
 
-    private static Cloud create() {
+    static void reset() {
+        CLOUD_HOLDER = new SharedCloudHolder();
+    }
+
+    static Cloud create(Function<String, String> environment) {
+        ReconfigurationEvent event = ReconfigurationEvents.beginCloudCreation();
+
+        if (!isInCloudFoundry(environment)) {
+            LOGGER.fine("Skipping cloud detection because VCAP_APPLICATION is not set");
+            event.commit(null, null, "not in cloud");
+            return null;
+        }
+
         try {
-            return new CloudFactory().getCloud();
+            CloudConnector cloudConnector = getCloudConnector(environment);
+            Cloud cloud = new TaggedCloud(cloudConnector, getServiceConnectorCreators(), cloudConnector instanceof StreamingCloudFoundryConnector ?
+                ((StreamingCloudFoundryConnector) cloudConnector)::getTags : serviceId -> Collections.emptyList());
+            event.commit(null, null, "created");
+            return cloud;
         } catch (CloudException e) {
+            event.commit(null, null, String.format("failed: %s", e));
             return null;
         }
     }
 
+    private static void addServiceConnectorCreator(List<ServiceConnectorCreator<?, ? extends ServiceInfo>> serviceConnectorCreators,
+                                                   ServiceConnectorCreator<?, ? extends ServiceInfo> serviceConnectorCreator) {
+        if (serviceConnectorCreator != null
+            && serviceConnectorCreators.stream().noneMatch(candidate -> candidate.getClass() == serviceConnectorCreator.getClass())) {
+            serviceConnectorCreators.add(serviceConnectorCreator);
+        }
+    }
+
+    private static CloudConnector getCloudConnector(Function<String, String> environment) {
+        ClassLoader classLoader = SharedCloudHolder.class.getClassLoader();
+
+        for (String className : getServiceClassNames(CloudConnector.class, classLoader)) {
+            CloudConnector cloudConnector = CloudFoundryConnector.class.getName().equals(className) ?
+                new StreamingCloudFoundryConnector(environment) : loadCreator(CloudConnector.class, className, "", classLoader);
+
+            if (cloudConnector != null && cloudConnector.isInMatchingCloud()) {
+                return cloudConnector;
+            }
+        }
+
+        throw new CloudException("No suitable cloud connector found");
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static List<ServiceConnectorCreator<?, ? extends ServiceInfo>> getServiceConnectorCreators() {
+        ClassLoader classLoader = SharedCloudHolder.class.getClassLoader();
+        List<ServiceConnectorCreator<?, ? extends ServiceInfo>> serviceConnectorCreators = new ArrayList<>();
+
+        if (ClassPathUtils.isPresent(LETTUCE, classLoader) && !ClassPathUtils.isPresent(JEDIS, classLoader)) {
+            addServiceConnectorCreator(serviceConnectorCreators,
+                loadCreator(ServiceConnectorCreator.class, LETTUCE_CREATOR, LETTUCE_CONNECTION_FACTORY, classLoader));
+        }
+
+        for (ServiceConnectorCreator serviceConnectorCreator : loadCreators(ServiceConnectorCreator.class)) {
+            serviceConnectorCreators.add(serviceConnectorCreator);
+        }
+
+        REACTIVE_CREATORS.forEach((connectorType, creatorClassName) ->
+            addServiceConnectorCreator(serviceConnectorCreators, loadCreator(ServiceConnectorCreator.class, creatorClassName, connectorType, classLoader)));
+
+        getServiceConnectorCreatorClassNames(classLoader).forEach(creatorClassName ->
+            addServiceConnectorCreator(serviceConnectorCreators, loadCreator(ServiceConnectorCreator.class, creatorClassName, "", classLoader)));
+
+        return serviceConnectorCreators;
+    }
+
+    private static boolean isInCloudFoundry(Function<String, String> environment) {
+        return environment.apply("VCAP_APPLICATION") != null;
+    }
+
 }
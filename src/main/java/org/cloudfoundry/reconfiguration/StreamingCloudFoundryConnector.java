@@ -0,0 +1,154 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.CloudException;
+import org.springframework.cloud.cloudfoundry.CloudFoundryConnector;
+import org.springframework.cloud.service.ServiceInfo;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.cloudfoundry.reconfiguration.VcapServicesUtils.forEachService;
+
+final class StreamingCloudFoundryConnector extends CloudFoundryConnector {
+
+    private static final int FALLBACK = -1;
+
+    private final Function<String, String> environment;
+
+    private volatile Services services;
+
+    StreamingCloudFoundryConnector(Function<String, String> environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public List<ServiceInfo> getServiceInfos() {
+        return new ArrayList<>(getServices().serviceInfos);
+    }
+
+    @Override
+    public boolean isInMatchingCloud() {
+        return this.environment.apply("VCAP_APPLICATION") != null;
+    }
+
+    List<String> getTags(String serviceId) {
+        return getServices().tags.getOrDefault(serviceId, Collections.emptyList());
+    }
+
+    private void addService(Services services, int serviceInfoCreator, Map<String, Object> serviceData) {
+        ServiceInfo serviceInfo = getServiceInfo(serviceInfoCreator, serviceData);
+        services.serviceInfos.add(serviceInfo);
+
+        Object tags = serviceData.get("tags");
+        if (tags instanceof List) {
+            services.tags.put(serviceInfo.getId(), ((List<?>) tags).stream().map(String::valueOf).collect(Collectors.toList()));
+        }
+    }
+
+    private Services createServices(String vcapServices) {
+        Services services = new Services(vcapServices);
+
+        if (vcapServices == null || vcapServices.isEmpty()) {
+            return services;
+        }
+
+        boolean shared = SharedBindings.isEnabled(this.environment);
+        ServiceSnapshot snapshot = shared ? null : ServiceSnapshot.create(this.environment, this.serviceInfoCreators);
+
+        try {
+            if (shared) {
+                SharedBindings.getServices(vcapServices).forEach(serviceData -> addService(services, getServiceInfoCreator(serviceData), serviceData));
+            } else if (snapshot == null) {
+                forEachService(new StringReader(vcapServices), serviceData -> addService(services, getServiceInfoCreator(serviceData), serviceData));
+            } else {
+                getBindings(snapshot, vcapServices).forEach(binding -> addService(services, binding.getServiceInfoCreator(), binding.getServiceData()));
+            }
+        } catch (IOException e) {
+            throw new CloudException(e);
+        }
+
+        return services;
+    }
+
+    private List<ServiceSnapshot.Binding> getBindings(ServiceSnapshot snapshot, String vcapServices) throws IOException {
+        List<ServiceSnapshot.Binding> bindings = snapshot.load();
+
+        if (bindings == null) {
+            List<ServiceSnapshot.Binding> parsed = new ArrayList<>();
+            forEachService(new StringReader(vcapServices), serviceData -> parsed.add(new ServiceSnapshot.Binding(getServiceInfoCreator(serviceData), serviceData)));
+            snapshot.save(parsed);
+            bindings = parsed;
+        }
+
+        return bindings;
+    }
+
+    private ServiceInfo getServiceInfo(int serviceInfoCreator, Map<String, Object> serviceData) {
+        if (serviceInfoCreator == FALLBACK || serviceInfoCreator >= this.serviceInfoCreators.size()) {
+            return getFallbackServiceInfoCreator().createServiceInfo(serviceData);
+        }
+
+        return this.serviceInfoCreators.get(serviceInfoCreator).createServiceInfo(serviceData);
+    }
+
+    private int getServiceInfoCreator(Map<String, Object> serviceData) {
+        for (int i = 0; i < this.serviceInfoCreators.size(); i++) {
+            if (this.serviceInfoCreators.get(i).accept(serviceData)) {
+                return i;
+            }
+        }
+
+        return FALLBACK;
+    }
+
+    private Services getServices() {
+        String vcapServices = this.environment.apply("VCAP_SERVICES");
+        Services services = this.services;
+
+        if (services == null || !Objects.equals(services.vcapServices, vcapServices)) {
+            services = createServices(vcapServices);
+            this.services = services;
+        }
+
+        return services;
+    }
+
+    private static final class Services {
+
+        private final List<ServiceInfo> serviceInfos = new ArrayList<>();
+
+        private final Map<String, List<String>> tags = new HashMap<>();
+
+        private final String vcapServices;
+
+        private Services(String vcapServices) {
+            this.vcapServices = vcapServices;
+        }
+
+    }
+
+}
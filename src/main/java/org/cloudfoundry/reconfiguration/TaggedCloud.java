@@ -0,0 +1,41 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.Cloud;
+import org.springframework.cloud.CloudConnector;
+import org.springframework.cloud.service.ServiceConnectorCreator;
+import org.springframework.cloud.service.ServiceInfo;
+
+import java.util.List;
+import java.util.function.Function;
+
+final class TaggedCloud extends Cloud {
+
+    private final Function<String, List<String>> tags;
+
+    TaggedCloud(CloudConnector cloudConnector, List<ServiceConnectorCreator<?, ? extends ServiceInfo>> serviceConnectorCreators,
+                Function<String, List<String>> tags) {
+        super(cloudConnector, serviceConnectorCreators);
+        this.tags = tags;
+    }
+
+    List<String> getTags(String serviceId) {
+        return this.tags.apply(serviceId);
+    }
+
+}
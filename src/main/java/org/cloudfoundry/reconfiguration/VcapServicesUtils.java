@@ -0,0 +1,59 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+final class VcapServicesUtils {
+
+    private VcapServicesUtils() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> getCredentials(Reader in, String serviceName) throws IOException {
+        Map<String, Object> credentials = new HashMap<>();
+
+        forEachService(in, serviceData -> {
+            if (serviceName.equals(serviceData.get("name")) && serviceData.get("credentials") instanceof Map) {
+                credentials.putAll((Map<String, Object>) serviceData.get("credentials"));
+            }
+        });
+
+        return credentials;
+    }
+
+    static void forEachService(Reader in, Consumer<Map<String, Object>> consumer) throws IOException {
+        JsonReader reader = new JsonReader(in);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                consumer.accept(reader.nextObject());
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+}
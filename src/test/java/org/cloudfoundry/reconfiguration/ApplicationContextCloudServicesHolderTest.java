@@ -0,0 +1,70 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ApplicationContextCloudServicesHolderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void index() throws IOException {
+        File library = this.folder.newFolder("library");
+        write(library.toPath().resolve("META-INF/auto-reconfiguration/cloud-services.index"), "java.lang.String");
+        write(library.toPath().resolve("META-INF/cloud/cloud-services"), "java.lang.Boolean");
+
+        File application = this.folder.newFolder("application");
+        write(application.toPath().resolve("META-INF/cloud/cloud-services"), "java.lang.Integer");
+
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.setClassLoader(new URLClassLoader(new URL[]{library.toURI().toURL(), application.toURI().toURL()}, null));
+
+        assertThat(ApplicationContextCloudServicesHolder.getCloudServiceClasses(applicationContext)).containsExactly(String.class);
+    }
+
+    @Test
+    public void noIndex() throws IOException {
+        File application = this.folder.newFolder("application");
+        write(application.toPath().resolve("META-INF/cloud/cloud-services"), "java.lang.Integer");
+
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.setClassLoader(new URLClassLoader(new URL[]{application.toURI().toURL()}, null));
+
+        assertThat(ApplicationContextCloudServicesHolder.getCloudServiceClasses(applicationContext)).containsExactly(Integer.class);
+    }
+
+    private static void write(Path path, String contents) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
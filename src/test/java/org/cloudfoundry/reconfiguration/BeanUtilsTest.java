@@ -0,0 +1,141 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public final class BeanUtilsTest {
+
+    @Test
+    public void abstractDefinition() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition beanDefinition = new RootBeanDefinition(SimpleDriverDataSource.class);
+        beanDefinition.setAbstract(true);
+        beanFactory.registerBeanDefinition("test-data-source", beanDefinition);
+
+        assertThat(getDataSourceBeanNames(beanFactory)).isEmpty();
+    }
+
+    @Test
+    public void definition() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("test-data-source", new RootBeanDefinition(SimpleDriverDataSource.class));
+        beanFactory.registerBeanDefinition("test-object", new RootBeanDefinition(Object.class));
+
+        assertThat(getDataSourceBeanNames(beanFactory)).containsExactly("test-data-source");
+    }
+
+    @Test
+    public void factoryMethodOnUninitializedFactoryBean() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("test-factory", new RootBeanDefinition(StubFactoryBean.class));
+
+        RootBeanDefinition beanDefinition = new RootBeanDefinition();
+        beanDefinition.setFactoryBeanName("test-factory");
+        beanDefinition.setFactoryMethodName("getDataSource");
+        beanFactory.registerBeanDefinition("test-data-source", beanDefinition);
+
+        int instances = StubFactoryBean.INSTANCES.get();
+
+        assertThat(getDataSourceBeanNames(beanFactory)).isEmpty();
+        assertThat(StubFactoryBean.INSTANCES).hasValue(instances);
+    }
+
+    @Test
+    public void lazyDefinitionWithoutClass() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setAllowEagerClassLoading(false);
+
+        GenericBeanDefinition beanDefinition = new GenericBeanDefinition();
+        beanDefinition.setBeanClassName(SimpleDriverDataSource.class.getName());
+        beanDefinition.setLazyInit(true);
+        beanFactory.registerBeanDefinition("test-data-source", beanDefinition);
+
+        assertThat(getDataSourceBeanNames(beanFactory)).isEmpty();
+    }
+
+    @Test
+    public void prototypeDefinition() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition beanDefinition = new RootBeanDefinition(SimpleDriverDataSource.class);
+        beanDefinition.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("test-data-source", beanDefinition);
+
+        assertThat(getDataSourceBeanNames(beanFactory)).isEmpty();
+    }
+
+    @Test
+    public void singleton() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("test-data-source", mock(DataSource.class));
+        beanFactory.registerSingleton("test-object", new Object());
+
+        assertThat(getDataSourceBeanNames(beanFactory)).containsExactly("test-data-source");
+    }
+
+    @Test
+    public void uninitializedFactoryBean() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("test-factory", new RootBeanDefinition(StubFactoryBean.class));
+
+        int instances = StubFactoryBean.INSTANCES.get();
+
+        assertThat(getDataSourceBeanNames(beanFactory)).isEmpty();
+        assertThat(StubFactoryBean.INSTANCES).hasValue(instances);
+    }
+
+    private static Iterable<String> getDataSourceBeanNames(DefaultListableBeanFactory beanFactory) {
+        return BeanUtils.indexBeansOfTypes(beanFactory, Collections.<Class<?>>singletonList(DataSource.class)).getBeanNames(DataSource.class);
+    }
+
+    public static final class StubFactoryBean implements FactoryBean<DataSource> {
+
+        private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public StubFactoryBean() {
+            INSTANCES.incrementAndGet();
+        }
+
+        public DataSource getDataSource() {
+            return mock(DataSource.class);
+        }
+
+        @Override
+        public DataSource getObject() {
+            return mock(DataSource.class);
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ClassLoaderCacheTest {
+
+    @Test
+    public void cached() {
+        ClassLoaderCache<Integer> cache = new ClassLoaderCache<>();
+        AtomicInteger counter = new AtomicInteger();
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        assertThat(cache.get(classLoader, key -> counter.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.get(classLoader, key -> counter.incrementAndGet())).isEqualTo(1);
+    }
+
+    @Test
+    public void nullClassLoader() {
+        ClassLoaderCache<Integer> cache = new ClassLoaderCache<>();
+        AtomicInteger counter = new AtomicInteger();
+
+        assertThat(cache.get(null, key -> counter.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.get(null, key -> counter.incrementAndGet())).isEqualTo(2);
+    }
+
+}
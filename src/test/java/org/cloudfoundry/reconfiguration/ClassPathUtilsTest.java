@@ -0,0 +1,45 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ClassPathUtilsTest {
+
+    @Test
+    public void absent() {
+        assertThat(ClassPathUtils.isPresent("org.cloudfoundry.reconfiguration.Absent", getClass().getClassLoader())).isFalse();
+    }
+
+    @Test
+    public void nullClassLoader() {
+        assertThat(ClassPathUtils.isPresent("org.cloudfoundry.reconfiguration.ClassPathUtils", null)).isTrue();
+    }
+
+    @Test
+    public void present() {
+        assertThat(ClassPathUtils.isPresent("org.cloudfoundry.reconfiguration.ClassPathUtils", getClass().getClassLoader())).isTrue();
+    }
+
+    @Test
+    public void presentPlatform() {
+        assertThat(ClassPathUtils.isPresent("javax.sql.DataSource", getClass().getClassLoader())).isTrue();
+    }
+
+}
@@ -17,10 +17,14 @@
 package org.cloudfoundry.reconfiguration;
 
 import com.datastax.driver.core.Cluster;
+import org.cloudfoundry.reconfiguration.TestReconfigurationTargetProvider.TestConnection;
 import org.junit.Test;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.cloud.Cloud;
+import org.springframework.cloud.CloudFactory;
+import org.springframework.cloud.CloudTestUtil;
 import org.springframework.cloud.service.ServiceInfo;
 import org.springframework.cloud.service.common.AmqpServiceInfo;
 import org.springframework.cloud.service.common.CassandraServiceInfo;
@@ -29,15 +33,33 @@ import org.springframework.cloud.service.common.PostgresqlServiceInfo;
 import org.springframework.cloud.service.common.RedisServiceInfo;
 import org.springframework.cloud.service.common.SmtpServiceInfo;
 import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.mail.javamail.JavaMailSender;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
 
 public final class CloudServiceReconfigurationBeanFactoryPostProcessorTest {
 
@@ -166,31 +188,161 @@ public final class CloudServiceReconfigurationBeanFactoryPostProcessorTest {
         reconfigured(Cluster.class, CloudServiceReconfigurationBeanFactoryPostProcessorTest::getColumnServiceInfo);
     }
 
+    @Test
+    public void reconfiguredCustomTarget() {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        Map<String, String> environment = new HashMap<>();
+        environment.put("VCAP_APPLICATION", "{}");
+        environment.put("VCAP_SERVICES", "{\"user-provided\": [{\"name\": \"test-cloud-service-1\", \"label\": \"user-provided\", \"tags\": [], " +
+            "\"credentials\": {\"key\": \"test-value\"}}]}");
+        Cloud cloud = SharedCloudHolder.create(environment::get);
+        applicationContext.registerBeanDefinition("test-bean-1", BeanDefinitionBuilder.genericBeanDefinition(TestConnection.class).getBeanDefinition());
+
+        new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud).postProcessBeanFactory(applicationContext.getBeanFactory());
+
+        assertThat(applicationContext.getBeanNamesForType(TestConnection.class)).containsOnly("test-cloud-service-1");
+        assertThat(applicationContext.getBean("test-bean-1", TestConnection.class).getServiceId()).isEqualTo("test-cloud-service-1");
+    }
+
     @Test
     public void reconfiguredDocument() {
         reconfigured(MongoDbFactory.class, CloudServiceReconfigurationBeanFactoryPostProcessorTest::getDocumentServiceInfo);
     }
 
+    @Test
+    public void reconfiguredDocumentAndReactiveDocument() {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        CloudFactory cloudFactory = new CloudFactory();
+        cloudFactory.registerCloudConnector(CloudTestUtil.getTestCloudConnector(getDocumentServiceInfo("test-cloud-service-1")));
+        cloudFactory.registerServiceConnectorCreator(new ReactiveMongoDatabaseFactoryCreator());
+        Cloud cloud = cloudFactory.getCloud();
+        applicationContext.registerBeanDefinition("test-bean-1", BeanDefinitionBuilder.genericBeanDefinition(MongoDbFactory.class).getBeanDefinition());
+        applicationContext.registerBeanDefinition("test-bean-2",
+            BeanDefinitionBuilder.genericBeanDefinition(ReactiveMongoDatabaseFactory.class).getBeanDefinition());
+
+        assertThat(cloud.getServiceInfos(ReactiveMongoDatabaseFactory.class)).hasSize(1);
+
+        new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud).postProcessBeanFactory(applicationContext.getBeanFactory());
+
+        assertThat(applicationContext.getBeanNamesForType(MongoDbFactory.class)).containsOnly("test-cloud-service-1");
+        assertThat(applicationContext.getBeanNamesForType(ReactiveMongoDatabaseFactory.class))
+            .containsOnly("test-cloud-service-1-reactiveMongoDatabaseFactory");
+        assertThat(applicationContext.getBean("test-bean-2")).isInstanceOf(ReactiveMongoDatabaseFactory.class);
+    }
+
     @Test
     public void reconfiguredKeyValue() {
         reconfigured(RedisConnectionFactory.class, CloudServiceReconfigurationBeanFactoryPostProcessorTest::getKeyValueServiceInfo);
     }
 
+    @Test
+    public void reconfiguredLazy() throws SQLException {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.getEnvironment().getPropertySources()
+            .addFirst(new MapPropertySource("test", Collections.singletonMap("auto-reconfiguration.lazy", "true")));
+        Cloud cloud = spy(MockCloudHolder.create(getRelationalServiceInfo("test-cloud-service-1")));
+        applicationContext.registerBeanDefinition("test-bean-1", BeanDefinitionBuilder.genericBeanDefinition(DataSource.class).getBeanDefinition());
+
+        new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud).postProcessBeanFactory(applicationContext.getBeanFactory());
+
+        assertThat(applicationContext.getBeanNamesForType(DataSource.class)).containsOnly("test-cloud-service-1");
+        DataSource dataSource = (DataSource) applicationContext.getBeanFactory().getBean("test-cloud-service-1");
+        assertThat(AopUtils.isAopProxy(dataSource)).isTrue();
+        verify(cloud, never()).getServiceConnector(anyString(), any(), any());
+
+        dataSource.getLoginTimeout();
+
+        verify(cloud).getServiceConnector(eq("test-cloud-service-1"), eq(DataSource.class), any());
+    }
+
     @Test
     public void reconfiguredMessaging() {
         reconfigured(ConnectionFactory.class, CloudServiceReconfigurationBeanFactoryPostProcessorTest::getMessagingServiceInfo);
     }
 
+    @Test
+    public void reconfiguredParallel() {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.getEnvironment().getPropertySources()
+            .addFirst(new MapPropertySource("test", Collections.singletonMap("auto-reconfiguration.parallel", "true")));
+        Cloud cloud = MockCloudHolder.create(getKeyValueServiceInfo("test-cloud-service-1"), getMessagingServiceInfo("test-cloud-service-2"),
+            getRelationalServiceInfo("test-cloud-service-3"));
+        applicationContext.registerBeanDefinition("test-bean-1", BeanDefinitionBuilder.genericBeanDefinition(RedisConnectionFactory.class).getBeanDefinition());
+        applicationContext.registerBeanDefinition("test-bean-2", BeanDefinitionBuilder.genericBeanDefinition(ConnectionFactory.class).getBeanDefinition());
+        applicationContext.registerBeanDefinition("test-bean-3", BeanDefinitionBuilder.genericBeanDefinition(DataSource.class).getBeanDefinition());
+
+        new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud).postProcessBeanFactory(applicationContext.getBeanFactory());
+
+        assertThat(applicationContext.getBeanNamesForType(RedisConnectionFactory.class)).containsOnly("test-cloud-service-1");
+        assertThat(applicationContext.getBeanNamesForType(ConnectionFactory.class)).containsOnly("test-cloud-service-2");
+        assertThat(applicationContext.getBeanNamesForType(DataSource.class)).containsOnly("test-cloud-service-3");
+    }
+
+    @Test
+    public void reconfiguredParallelFailure() throws Exception {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.getEnvironment().getPropertySources()
+            .addFirst(new MapPropertySource("test", Collections.singletonMap("auto-reconfiguration.parallel", "true")));
+        Cloud cloud = spy(MockCloudHolder.create(getKeyValueServiceInfo("test-cloud-service-1"), getRelationalServiceInfo("test-cloud-service-2")));
+        DataSource dataSource = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        doThrow(new IllegalStateException("test-message")).when(cloud).getServiceConnector(eq("test-cloud-service-1"), eq(RedisConnectionFactory.class), any());
+        doReturn(dataSource).when(cloud).getServiceConnector(eq("test-cloud-service-2"), eq(DataSource.class), any());
+        applicationContext.registerBeanDefinition("test-bean-1", BeanDefinitionBuilder.genericBeanDefinition(RedisConnectionFactory.class).getBeanDefinition());
+        applicationContext.registerBeanDefinition("test-bean-2", BeanDefinitionBuilder.genericBeanDefinition(DataSource.class).getBeanDefinition());
+
+        assertThatIllegalStateException()
+            .isThrownBy(() -> new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud)
+                .postProcessBeanFactory(applicationContext.getBeanFactory()))
+            .withMessage("test-message");
+
+        verify((AutoCloseable) dataSource, timeout(5000)).close();
+    }
+
     @Test
     public void reconfiguredRelational() {
         reconfigured(DataSource.class, CloudServiceReconfigurationBeanFactoryPostProcessorTest::getRelationalServiceInfo);
     }
 
+    @Test
+    public void reconfiguredReplicas() {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.getEnvironment().getPropertySources()
+            .addFirst(new MapPropertySource("test", Collections.singletonMap("auto-reconfiguration.datasource.replicas", "true")));
+        Cloud cloud = MockCloudHolder.create(getRelationalServiceInfo("test-cloud-service-1"), getRelationalServiceInfo("test-cloud-service-1-replica"));
+        applicationContext.registerBeanDefinition("test-bean-1", BeanDefinitionBuilder.genericBeanDefinition(DataSource.class).getBeanDefinition());
+
+        new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud).postProcessBeanFactory(applicationContext.getBeanFactory());
+
+        assertThat(applicationContext.getBeanNamesForType(DataSource.class)).containsOnly("test-cloud-service-1");
+        assertThat(applicationContext.getBeanFactory().getBean("test-cloud-service-1")).isInstanceOf(LazyConnectionDataSourceProxy.class);
+    }
+
     @Test
     public void reconfiguredSmtp() {
         reconfigured(JavaMailSender.class, CloudServiceReconfigurationBeanFactoryPostProcessorTest::getSmtpServiceInfo);
     }
 
+    @Test
+    public void reconfiguredTimings() {
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        Cloud cloud = MockCloudHolder.create(getRelationalServiceInfo("test-cloud-service-1"));
+        ReconfigurationTimings timings = new ReconfigurationTimings();
+        timings.time("profile-activation", null, () -> {
+        });
+        applicationContext.registerBeanDefinition("test-bean-1", BeanDefinitionBuilder.genericBeanDefinition(DataSource.class).getBeanDefinition());
+
+        new CloudServiceReconfigurationBeanFactoryPostProcessor(applicationContext, cloud, new ServiceInfoIndex(cloud), timings)
+            .postProcessBeanFactory(applicationContext.getBeanFactory());
+
+        ReconfigurationTimings run = timings.getLastReport();
+
+        assertThat(run.getPhases()).extracting(ReconfigurationTimings.Phase::getName)
+            .contains("profile-activation", "cloud-services-scan", "bean-index", "bean-lookup", "connector-creation");
+        assertThat(run.getPhases()).filteredOn(phase -> "connector-creation".equals(phase.getName()))
+            .extracting(ReconfigurationTimings.Phase::getType).containsExactly(DataSource.class.getName());
+        assertThat(timings.getPhases()).isEmpty();
+    }
+
     @Test
     public void usingCloudServices() {
         StaticApplicationContext applicationContext = new StaticApplicationContext();
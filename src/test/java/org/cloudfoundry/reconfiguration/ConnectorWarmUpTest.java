@@ -0,0 +1,148 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ConnectorWarmUpTest {
+
+    private final ApplicationContext applicationContext = mock(ApplicationContext.class);
+
+    @Test
+    public void dataSource() throws SQLException {
+        Connection connection = mock(Connection.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(this.applicationContext.getBean("test-data-source")).thenReturn(dataSource);
+
+        new ConnectorWarmUp(this.applicationContext, Collections.singletonList("test-data-source"), 3, 10000, true)
+            .onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+        verify(dataSource, times(3)).getConnection();
+        verify(connection, times(3)).isValid(0);
+        verify(connection, times(3)).close();
+    }
+
+    @Test
+    public void differentApplicationContext() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(this.applicationContext.getBean("test-data-source")).thenReturn(dataSource);
+
+        new ConnectorWarmUp(this.applicationContext, Collections.singletonList("test-data-source"), 3, 10000, true)
+            .onApplicationEvent(new ContextRefreshedEvent(mock(ApplicationContext.class)));
+
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    public void failure() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("test-message"));
+        when(this.applicationContext.getBean("test-data-source")).thenReturn(dataSource);
+
+        new ConnectorWarmUp(this.applicationContext, Collections.singletonList("test-data-source"), 2, 10000, true)
+            .onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    public void rabbit() {
+        org.springframework.amqp.rabbit.connection.Connection connection = mock(org.springframework.amqp.rabbit.connection.Connection.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(this.applicationContext.getBean("test-rabbit")).thenReturn(connectionFactory);
+
+        new ConnectorWarmUp(this.applicationContext, Collections.singletonList("test-rabbit"), 2, 10000, true)
+            .onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+        verify(connectionFactory, times(2)).createConnection();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void redis() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(this.applicationContext.getBean("test-redis")).thenReturn(connectionFactory);
+
+        new ConnectorWarmUp(this.applicationContext, Collections.singletonList("test-redis"), 2, 10000, true)
+            .onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+        verify(connectionFactory, times(2)).getConnection();
+        verify(connection, times(2)).ping();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void timeout() throws SQLException {
+        Connection connection = mock(Connection.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(deadline - System.nanoTime());
+            }
+            return connection;
+        });
+        when(this.applicationContext.getBean("test-data-source")).thenReturn(dataSource);
+
+        long start = System.currentTimeMillis();
+        new ConnectorWarmUp(this.applicationContext, Collections.singletonList("test-data-source"), 1, 100, true)
+            .onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(5000);
+        verify(connection, timeout(5000)).close();
+    }
+
+    @Test
+    public void unsupported() throws SQLException {
+        Object bean = new Object();
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        when(this.applicationContext.getBean("test-object")).thenReturn(bean);
+        when(this.applicationContext.getBean("test-data-source")).thenReturn(dataSource);
+
+        new ConnectorWarmUp(this.applicationContext, Arrays.asList("test-object", "test-data-source"), 1, 10000, true)
+            .onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+        verify(dataSource).getConnection();
+    }
+
+}
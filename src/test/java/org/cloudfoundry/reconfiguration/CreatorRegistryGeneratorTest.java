@@ -0,0 +1,70 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.cloudfoundry.reconfiguration.CreatorRegistryTest.StubCreator;
+import org.cloudfoundry.reconfiguration.TestReconfigurationTargetProvider.TestConnection;
+import org.cloudfoundry.reconfiguration.TestReconfigurationTargetProvider.TestConnectionCreator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public final class CreatorRegistryGeneratorTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void preservesDiscoveryOrder() throws IOException {
+        Path root = this.temporaryFolder.getRoot().toPath();
+        Path services = root.resolve("META-INF/services");
+        Files.createDirectories(services);
+        Files.write(services.resolve("test-prefix.TestCreatorB"),
+            Arrays.asList(TestConnectionCreator.class.getName(), "# test comment", StubCreator.class.getName()), StandardCharsets.UTF_8);
+        Files.write(services.resolve("test-prefix.TestCreatorA"), Collections.singletonList(StubCreator.class.getName()), StandardCharsets.UTF_8);
+
+        CreatorRegistryGenerator.main(new String[]{root.toString(), "test-prefix"});
+
+        assertThat(Files.readAllLines(root.resolve(CreatorRegistry.INDEX), StandardCharsets.UTF_8)).containsExactly(
+            String.format("test-prefix.TestCreatorA\t%s\t", StubCreator.class.getName()),
+            String.format("test-prefix.TestCreatorB\t%s\t%s", TestConnectionCreator.class.getName(), TestConnection.class.getName()),
+            String.format("test-prefix.TestCreatorB\t%s\t", StubCreator.class.getName()));
+    }
+
+    @Test
+    public void unloadableCreator() throws IOException {
+        Path root = this.temporaryFolder.getRoot().toPath();
+        Path services = root.resolve("META-INF/services");
+        Files.createDirectories(services);
+        Files.write(services.resolve("test-prefix.TestCreator"), Collections.singletonList("test.AbsentCreator"), StandardCharsets.UTF_8);
+
+        assertThatIllegalStateException()
+            .isThrownBy(() -> CreatorRegistryGenerator.main(new String[]{root.toString(), "test-prefix"}))
+            .withMessage("Unable to determine the connector type of 'test.AbsentCreator'");
+    }
+
+}
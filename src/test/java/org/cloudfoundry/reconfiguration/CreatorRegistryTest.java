@@ -0,0 +1,95 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class CreatorRegistryTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void loadCreators() throws IOException {
+        File index = this.temporaryFolder.newFile("creators.index");
+        Files.write(index.toPath(), Arrays.asList(
+            String.format("java.lang.Runnable\t%s\t", StubCreator.class.getName()),
+            String.format("java.lang.Runnable\t%s\tjava.lang.String", StubCreator.class.getName()),
+            String.format("java.lang.Runnable\t%s\torg.example.Absent", StubCreator.class.getName()),
+            "java.lang.Runnable\torg.example.AbsentCreator\t",
+            String.format("java.lang.AutoCloseable\t%s\t", StubCreator.class.getName())
+        ), StandardCharsets.UTF_8);
+
+        List<Runnable> creators = CreatorRegistry.loadCreators(Runnable.class, index.toURI().toURL(), getClass().getClassLoader());
+
+        assertThat(creators).hasSize(2).allMatch(creator -> creator instanceof StubCreator);
+    }
+
+    @Test
+    public void loadCreatorsUnindexedServices() throws IOException {
+        File index = this.temporaryFolder.newFile("creators.index");
+        Files.write(index.toPath(), Collections.singletonList(String.format("java.lang.Runnable\t%s\t", StubCreator.class.getName())), StandardCharsets.UTF_8);
+
+        File services = this.temporaryFolder.newFolder("META-INF", "services");
+        Files.write(services.toPath().resolve("java.lang.Runnable"), Arrays.asList(StubCreator.class.getName(), UnindexedCreator.class.getName()),
+            StandardCharsets.UTF_8);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{this.temporaryFolder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+            List<Runnable> creators = CreatorRegistry.loadCreators(Runnable.class, index.toURI().toURL(), classLoader);
+
+            assertThat(creators).hasSize(2);
+            assertThat(creators.get(0)).isInstanceOf(StubCreator.class);
+            assertThat(creators.get(1)).isInstanceOf(UnindexedCreator.class);
+        }
+    }
+
+    @Test
+    public void noIndex() {
+        assertThat(CreatorRegistry.loadCreators(Runnable.class)).isEmpty();
+    }
+
+    public static final class StubCreator implements Runnable {
+
+        @Override
+        public void run() {
+        }
+
+    }
+
+    public static final class UnindexedCreator implements Runnable {
+
+        @Override
+        public void run() {
+        }
+
+    }
+
+}
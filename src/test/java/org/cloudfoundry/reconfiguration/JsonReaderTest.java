@@ -0,0 +1,73 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public final class JsonReaderTest {
+
+    @Test
+    public void malformed() {
+        assertThatThrownBy(() -> new JsonReader(new StringReader("{\"alpha\" 1}")).nextObject()).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new JsonReader(new StringReader("{\"alpha\": \"bravo")).nextObject()).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new JsonReader(new StringReader("{\"alpha\": 1 \"bravo\": 2}")).nextObject()).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new JsonReader(new StringReader("[1 2]")).nextValue()).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new JsonReader(new StringReader("[1, ]")).nextValue()).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new JsonReader(new StringReader("[, 1]")).nextValue()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void nextObject() throws IOException {
+        Map<String, Object> object = new JsonReader(new StringReader(
+            "{ \"string\": \"a\\\"b\\u0041\", \"int\": 1, \"long\": 4294967296, \"double\": 1.5e1, \"true\": true, \"false\": false, " +
+                "\"null\": null, \"array\": [1, \"two\"], \"empty\": [], \"object\": {} }")).nextObject();
+
+        assertThat(object.keySet()).containsExactly("string", "int", "long", "double", "true", "false", "null", "array", "empty", "object");
+        assertThat(object.get("string")).isEqualTo("a\"bA");
+        assertThat(object.get("int")).isEqualTo(1);
+        assertThat(object.get("long")).isEqualTo(4294967296L);
+        assertThat(object.get("double")).isEqualTo(15.0);
+        assertThat(object.get("true")).isEqualTo(true);
+        assertThat(object.get("false")).isEqualTo(false);
+        assertThat(object.get("null")).isNull();
+        assertThat(object.get("array")).isEqualTo(Arrays.asList(1, "two"));
+        assertThat(object.get("object")).isEqualTo(Collections.emptyMap());
+    }
+
+    @Test
+    public void skipValue() throws IOException {
+        JsonReader reader = new JsonReader(new StringReader("[{\"alpha\": [1, {\"bravo\": \"\\\"]\"}]}, \"charlie\"]"));
+
+        reader.beginArray();
+        assertThat(reader.hasNext()).isTrue();
+        reader.skipValue();
+        assertThat(reader.hasNext()).isTrue();
+        assertThat(reader.nextString()).isEqualTo("charlie");
+        assertThat(reader.hasNext()).isFalse();
+        reader.endArray();
+    }
+
+}
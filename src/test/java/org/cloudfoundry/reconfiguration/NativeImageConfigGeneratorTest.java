@@ -0,0 +1,102 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class NativeImageConfigGeneratorTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void reflectConfig() throws IOException {
+        Path root = getRoot();
+
+        NativeImageConfigGenerator.main(new String[]{root.toString(), "test-prefix", "META-INF/native-image/test-group/test-artifact"});
+
+        List<Object> reflectConfig = (List<Object>) readJson(root.resolve("META-INF/native-image/test-group/test-artifact/reflect-config.json"));
+        Map<String, Map<String, Object>> entries = reflectConfig.stream()
+            .map(entry -> (Map<String, Object>) entry)
+            .collect(Collectors.toMap(entry -> (String) entry.get("name"), entry -> entry));
+
+        assertThat(entries).containsKeys("test.Creator", "test.ConnectorType", "test.CloudService", "test.Initializer", "test.Listener",
+            "test.ServletContainerInitializer", "javax.sql.DataSource", "org.cloudfoundry.reconfiguration.R2dbcConnectionFactoryCreator");
+        assertThat(entries.get("test.Creator")).containsKey("methods");
+        assertThat(entries.get("test.Initializer")).containsKey("methods");
+        assertThat(entries.get("test.ConnectorType")).doesNotContainKey("methods");
+        assertThat(entries.get("test.CloudService")).doesNotContainKey("methods");
+        assertThat(entries.get("com.zaxxer.hikari.HikariDataSource")).containsEntry("allPublicConstructors", true).containsEntry("allPublicMethods", true);
+        assertThat(entries.get("org.apache.commons.dbcp2.BasicDataSource")).containsEntry("allPublicMethods", true);
+        assertThat(entries.get("org.apache.tomcat.jdbc.pool.DataSource")).containsEntry("allPublicMethods", true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void resourceConfig() throws IOException {
+        Path root = getRoot();
+
+        NativeImageConfigGenerator.main(new String[]{root.toString(), "test-prefix", "META-INF/native-image/test-group/test-artifact"});
+
+        Map<String, Object> resourceConfig =
+            (Map<String, Object>) readJson(root.resolve("META-INF/native-image/test-group/test-artifact/resource-config.json"));
+        List<Object> includes = (List<Object>) ((Map<String, Object>) resourceConfig.get("resources")).get("includes");
+
+        assertThat(includes.stream().map(include -> ((Map<String, Object>) include).get("pattern")).collect(Collectors.toList()))
+            .contains("\\QMETA-INF/auto-reconfiguration/\\E.*", "\\QMETA-INF/services/test-prefix.\\E.*", "\\QMETA-INF/spring.factories\\E");
+    }
+
+    private Path getRoot() throws IOException {
+        Path root = this.temporaryFolder.getRoot().toPath();
+
+        write(root.resolve(CreatorRegistry.INDEX), "test.CreatorType\ttest.Creator\ttest.ConnectorType");
+        write(root.resolve("META-INF/auto-reconfiguration/cloud-services.index"), "test.CloudService");
+        write(root.resolve("META-INF/services/javax.servlet.ServletContainerInitializer"), "test.ServletContainerInitializer");
+        write(root.resolve("META-INF/spring.factories"),
+            "# Test Factories",
+            "test.Factory=\\",
+            "test.Initializer,\\",
+            "test.Listener");
+
+        return root;
+    }
+
+    private static Object readJson(Path file) throws IOException {
+        return new JsonReader(new StringReader(new String(Files.readAllBytes(file), StandardCharsets.UTF_8))).nextValue();
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+import org.springframework.cloud.service.common.RedisServiceInfo;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ReactiveRedisConnectionFactoryCreatorTest {
+
+    @Test
+    public void create() {
+        ReactiveRedisConnectionFactory connectionFactory = new ReactiveRedisConnectionFactoryCreator()
+            .create(new RedisServiceInfo("test-cloud-service-1", "127.0.0.1", 4321, "service-password"), null);
+
+        assertThat(connectionFactory).isInstanceOf(LettuceConnectionFactory.class);
+
+        LettuceConnectionFactory lettuceConnectionFactory = (LettuceConnectionFactory) connectionFactory;
+        assertThat(lettuceConnectionFactory.getHostName()).isEqualTo("127.0.0.1");
+        assertThat(lettuceConnectionFactory.getPort()).isEqualTo(4321);
+        assertThat(lettuceConnectionFactory.getPassword()).isEqualTo("service-password");
+
+        lettuceConnectionFactory.destroy();
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.cloudfoundry.reconfiguration.TestReconfigurationTargetProvider.TestConnection;
+import org.cloudfoundry.reconfiguration.TestReconfigurationTargetProvider.TestConnectionCreator;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ReconfigurationTargetsTest {
+
+    @Test
+    public void cached() {
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        assertThat(ReconfigurationTargets.getTargetClassNames(classLoader)).isSameAs(ReconfigurationTargets.getTargetClassNames(classLoader));
+    }
+
+    @Test
+    public void customTargets() {
+        assertThat(ReconfigurationTargets.getTargetClasses(getClass().getClassLoader())).contains(TestConnection.class);
+        assertThat(ReconfigurationTargets.getServiceConnectorCreatorClassNames(getClass().getClassLoader()))
+            .containsExactly(TestConnectionCreator.class.getName());
+    }
+
+    @Test
+    public void defaultTargets() {
+        assertThat(ReconfigurationTargets.getTargetClasses(getClass().getClassLoader())).contains(DataSource.class);
+    }
+
+    @Test
+    public void providers() {
+        ReconfigurationTargetProvider provider = () -> Arrays.asList(
+            "java.util.concurrent.Executor",
+            "org.cloudfoundry.reconfiguration.Absent",
+            "javax.sql.DataSource");
+
+        List<String> targetClassNames = ReconfigurationTargets.resolveTargetClassNames(
+            Arrays.asList(new DefaultReconfigurationTargetProvider(), provider), getClass().getClassLoader());
+        List<Class<?>> targetClasses = ReconfigurationTargets.resolveTargetClasses(targetClassNames, getClass().getClassLoader());
+
+        assertThat(targetClassNames).doesNotContain("org.cloudfoundry.reconfiguration.Absent");
+        assertThat(targetClasses).contains(Executor.class, DataSource.class);
+        assertThat(targetClasses.stream().filter(DataSource.class::equals)).hasSize(1);
+        assertThat(targetClasses.indexOf(DataSource.class)).isLessThan(targetClasses.indexOf(Executor.class));
+    }
+
+    @Test
+    public void noProviders() {
+        assertThat(ReconfigurationTargets.resolveTargetClassNames(Collections.emptyList(), getClass().getClassLoader())).isEmpty();
+        assertThat(ReconfigurationTargets.resolveServiceConnectorCreatorClassNames(Collections.emptyList())).isEmpty();
+    }
+
+}
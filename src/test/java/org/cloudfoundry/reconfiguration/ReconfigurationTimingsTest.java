@@ -0,0 +1,91 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public final class ReconfigurationTimingsTest {
+
+    @Test
+    public void drain() {
+        ReconfigurationTimings timings = new ReconfigurationTimings();
+
+        timings.time("test-phase", null, () -> {
+        });
+
+        ReconfigurationTimings drained = timings.drain();
+
+        assertThat(drained.getPhases()).extracting(ReconfigurationTimings.Phase::getName).containsExactly("test-phase");
+        assertThat(timings.getPhases()).isEmpty();
+    }
+
+    @Test
+    public void json() {
+        ReconfigurationTimings timings = new ReconfigurationTimings();
+
+        timings.time("test-phase-1", null, () -> {
+        });
+        timings.time("test-phase-2", "test-type", () -> {
+        });
+
+        assertThat(timings.toJson())
+            .matches("\\{\"phases\":\\[\\{\"name\":\"test-phase-1\",\"durationMillis\":[0-9.]+},\\{\"name\":\"test-phase-2\",\"type\":\"test-type\",\"durationMillis\":[0-9.]+}]}");
+    }
+
+    @Test
+    public void lastReport() {
+        ReconfigurationTimings timings = new ReconfigurationTimings();
+        ReconfigurationTimings report = timings.drain();
+
+        assertThat(timings.getLastReport()).isNull();
+
+        timings.setLastReport(report);
+
+        assertThat(timings.getLastReport()).isSameAs(report);
+    }
+
+    @Test
+    public void recordsFailures() {
+        ReconfigurationTimings timings = new ReconfigurationTimings();
+
+        assertThatThrownBy(() -> timings.time("test-phase", null, () -> {
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(timings.getPhases()).extracting(ReconfigurationTimings.Phase::getName).containsExactly("test-phase");
+    }
+
+    @Test
+    public void time() {
+        ReconfigurationTimings timings = new ReconfigurationTimings();
+
+        assertThat(timings.time("test-phase", "test-type", () -> "test-value")).isEqualTo("test-value");
+
+        List<ReconfigurationTimings.Phase> phases = timings.getPhases();
+        assertThat(phases).hasSize(1);
+        assertThat(phases.get(0).getName()).isEqualTo("test-phase");
+        assertThat(phases.get(0).getType()).isEqualTo("test-type");
+        assertThat(phases.get(0).getDuration(TimeUnit.NANOSECONDS)).isNotNegative();
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ReplicaRoutingDataSourceTest {
+
+    @Test
+    public void lazy() throws SQLException {
+        DataSource primary = getDataSource();
+        DataSource replica = getDataSource();
+
+        ReplicaRoutingDataSource.create(primary, Arrays.asList(replica));
+
+        verify(primary, never()).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    public void readOnly() throws SQLException {
+        DataSource primary = getDataSource();
+        DataSource replica1 = getDataSource();
+        DataSource replica2 = getDataSource();
+        DataSource dataSource = ReplicaRoutingDataSource.create(primary, Arrays.asList(replica1, replica2));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            for (int i = 0; i < 3; i++) {
+                dataSource.getConnection().createStatement();
+            }
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        verify(replica1, times(2)).getConnection();
+        verify(replica2, times(1)).getConnection();
+    }
+
+    @Test
+    public void readWrite() throws SQLException {
+        DataSource primary = getDataSource();
+        DataSource replica = getDataSource();
+        DataSource dataSource = ReplicaRoutingDataSource.create(primary, Arrays.asList(replica));
+
+        dataSource.getConnection().createStatement();
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    private static DataSource getDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public final class SharedBindingsTest {
+
+    private static final String VCAP_SERVICES = "{\"test-label\": [{\"name\": \"test-name\", \"tags\": [\"test-tag\"], " +
+        "\"credentials\": {\"uri\": \"test-uri\"}}]}";
+
+    @After
+    public void clear() {
+        System.getProperties().remove(SharedBindings.KEY);
+    }
+
+    @Test
+    public void changed() throws IOException {
+        List<Map<String, Object>> services = SharedBindings.getServices(VCAP_SERVICES);
+
+        assertThat(SharedBindings.getServices("{\"test-label\": []}")).isEmpty();
+        assertThat(SharedBindings.getServices(VCAP_SERVICES)).isNotSameAs(services).isEqualTo(services);
+    }
+
+    @Test
+    public void disabled() {
+        assertThat(SharedBindings.isEnabled(Collections.<String, String>emptyMap()::get)).isFalse();
+    }
+
+    @Test
+    public void enabled() {
+        assertThat(SharedBindings.isEnabled(Collections.singletonMap(SharedBindings.ENABLED, "true")::get)).isTrue();
+    }
+
+    @Test
+    public void immutable() throws IOException {
+        Map<String, Object> service = SharedBindings.getServices(VCAP_SERVICES).get(0);
+
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> service.put("test-key", "test-value"));
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> ((List<?>) service.get("tags")).clear());
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> ((Map<?, ?>) service.get("credentials")).clear());
+    }
+
+    @Test
+    public void rawBindingsNotStored() throws IOException {
+        SharedBindings.getServices(VCAP_SERVICES);
+
+        assertThat(SharedBindings.KEY).endsWith("vcap_services");
+        assertThat(((Map.Entry<?, ?>) System.getProperties().get(SharedBindings.KEY)).getKey()).isInstanceOf(byte[].class);
+    }
+
+    @Test
+    public void replacesUnrecognized() throws IOException {
+        System.getProperties().put(SharedBindings.KEY, "test-value");
+
+        assertThat(SharedBindings.getServices(VCAP_SERVICES)).hasSize(1);
+        assertThat(System.getProperties().get(SharedBindings.KEY)).isInstanceOf(Map.Entry.class);
+    }
+
+    @Test
+    public void reused() throws IOException {
+        List<Map<String, Object>> services = SharedBindings.getServices(VCAP_SERVICES);
+
+        assertThat(services).hasSize(1);
+        assertThat(services.get(0)).containsEntry("name", "test-name");
+        assertThat(SharedBindings.getServices(VCAP_SERVICES)).isSameAs(services);
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.springframework.cloud.service.AbstractServiceConnectorCreator;
+import org.springframework.cloud.service.BaseServiceInfo;
+import org.springframework.cloud.service.ServiceConnectorConfig;
+
+import java.util.Collections;
+import java.util.List;
+
+public final class TestReconfigurationTargetProvider implements ReconfigurationTargetProvider {
+
+    @Override
+    public List<String> getServiceConnectorCreatorClassNames() {
+        return Collections.singletonList(TestConnectionCreator.class.getName());
+    }
+
+    @Override
+    public List<String> getTargetClassNames() {
+        return Collections.singletonList(TestConnection.class.getName());
+    }
+
+    public interface TestConnection {
+
+        String getServiceId();
+
+    }
+
+    public static final class TestConnectionCreator extends AbstractServiceConnectorCreator<TestConnection, BaseServiceInfo> {
+
+        @Override
+        public TestConnection create(BaseServiceInfo serviceInfo, ServiceConnectorConfig serviceConnectorConfig) {
+            return serviceInfo::getId;
+        }
+
+    }
+
+}
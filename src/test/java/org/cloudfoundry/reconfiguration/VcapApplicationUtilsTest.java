@@ -0,0 +1,39 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class VcapApplicationUtilsTest {
+
+    @Test
+    public void getApplication() throws IOException {
+        assertThat(VcapApplicationUtils.getApplication("{\"application_id\": \"test-id\", \"instances\": 3}"))
+            .containsEntry("application_id", "test-id")
+            .containsEntry("instances", 3);
+    }
+
+    @Test
+    public void getApplicationUnset() throws IOException {
+        assertThat(VcapApplicationUtils.getApplication(null)).isEmpty();
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2011-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reconfiguration;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class VcapServicesUtilsTest {
+
+    @Test
+    public void forEachService() throws IOException {
+        List<Map<String, Object>> services = new ArrayList<>();
+
+        VcapServicesUtils.forEachService(new StringReader("{" +
+            "\"elephantsql\": [{\"name\": \"test-service-1\", \"tags\": [\"postgresql\"], \"credentials\": {\"uri\": \"postgres://a:b@c/d\"}}]," +
+            "\"user-provided\": [{\"name\": \"test-service-2\", \"credentials\": {}}, {\"name\": \"test-service-3\", \"credentials\": {}}]" +
+            "}"), services::add);
+
+        assertThat(services).extracting(service -> service.get("name")).containsExactly("test-service-1", "test-service-2", "test-service-3");
+        assertThat(services.get(0).get("credentials")).isInstanceOf(Map.class);
+    }
+
+    @Test
+    public void forEachServiceEmpty() throws IOException {
+        List<Map<String, Object>> services = new ArrayList<>();
+
+        VcapServicesUtils.forEachService(new StringReader(" { } "), services::add);
+
+        assertThat(services).isEmpty();
+    }
+
+}